@@ -0,0 +1,309 @@
+/**
+ *
+ */
+package edu.cs.ai.math.combinatorics;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An unmodifiable view of the powerset of a collection. The base elements are
+ * indexed by the order of their first occurrence in the collection, and every
+ * subset is represented by a bitmask over these indices: a {@code long} for
+ * bases of at most 64 elements, and a {@link BitSet} beyond.
+ *
+ * The powerset itself is never materialised. Its size, the membership test and
+ * the iteration are computed from the masks, and every subset is a lightweight
+ * mask-backed view. Hence a powerset takes memory linear in the size of its
+ * base.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+public class BitmaskPowerSet<E> extends AbstractSet<Set<E>> {
+
+	private final List<E> elements;
+	private final HashMap<Object, Integer> index;
+
+	public static void main(String[] args) {
+		BitmaskPowerSet<Integer> powerSet = new BitmaskPowerSet<>(List.of(1, 2, 3));
+		System.out.println(powerSet + " " + powerSet.size() + " " + powerSet.contains(Set.of(1, 3)));
+	}
+
+	/***
+	 * Constructs the powerset over the given collection. Duplicates are removed.
+	 *
+	 * @param base the base elements
+	 */
+	public BitmaskPowerSet(Collection<E> base) {
+		if (base == null)
+			throw new IllegalArgumentException();
+		this.elements = Collections.unmodifiableList(new ArrayList<>(new LinkedHashSet<>(base)));
+		this.index = new HashMap<>();
+		for (int i = 0; i < elements.size(); i++)
+			index.put(elements.get(i), i);
+	}
+
+	/***
+	 * The base elements, where the position of an element is its index in the
+	 * masks.
+	 */
+	public List<E> getElements() {
+		return elements;
+	}
+
+	/***
+	 * The index of {@code element} in the masks, or {@code -1} if it is not a base
+	 * element.
+	 */
+	public int indexOf(Object element) {
+		Integer i = index.get(element);
+		return i == null ? -1 : i;
+	}
+
+	/***
+	 * The subset with the given mask.
+	 *
+	 * @throws IllegalArgumentException if the base has more than 64 elements or
+	 *                                  the mask contains bits beyond the base
+	 */
+	public Set<E> subset(long mask) {
+		if (elements.size() > Long.SIZE || (elements.size() < Long.SIZE && (mask >>> elements.size()) != 0))
+			throw new IllegalArgumentException();
+		return new MaskSubset(mask);
+	}
+
+	/***
+	 * The subset with the given mask. The mask is copied.
+	 *
+	 * @throws IllegalArgumentException if the mask contains bits beyond the base
+	 */
+	public Set<E> subset(BitSet mask) {
+		if (mask.length() > elements.size())
+			throw new IllegalArgumentException();
+		if (elements.size() <= Long.SIZE)
+			return new MaskSubset(mask.length() == 0 ? 0L : mask.toLongArray()[0]);
+		return new BitSetSubset((BitSet) mask.clone());
+	}
+
+	/***
+	 * The mask of a subset of the base.
+	 *
+	 * @throws IllegalArgumentException if the base has more than 64 elements or
+	 *                                  the set is no subset of the base
+	 */
+	public long mask(Set<?> subset) {
+		if (elements.size() > Long.SIZE)
+			throw new IllegalArgumentException();
+		if (subset instanceof BitmaskPowerSet.MaskSubset) {
+			BitmaskPowerSet<?>.MaskSubset own = (BitmaskPowerSet<?>.MaskSubset) subset;
+			if (own.owner() == this)
+				return own.mask;
+		}
+		long mask = 0L;
+		for (Object o : subset) {
+			int i = indexOf(o);
+			if (i < 0)
+				throw new IllegalArgumentException();
+			mask |= 1L << i;
+		}
+		return mask;
+	}
+
+	/***
+	 * The mask of a subset of the base as {@link BitSet}.
+	 *
+	 * @throws IllegalArgumentException if the set is no subset of the base
+	 */
+	public BitSet bits(Set<?> subset) {
+		BitSet bits = new BitSet(elements.size());
+		for (Object o : subset) {
+			int i = indexOf(o);
+			if (i < 0)
+				throw new IllegalArgumentException();
+			bits.set(i);
+		}
+		return bits;
+	}
+
+	/***
+	 * The number of subsets, or {@link Integer#MAX_VALUE} if there are more.
+	 */
+	@Override
+	public int size() {
+		if (elements.size() >= Integer.SIZE - 1)
+			return Integer.MAX_VALUE;
+		return 1 << elements.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return false;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (!(o instanceof Set))
+			return false;
+		for (Object element : (Set<?>) o)
+			if (!index.containsKey(element))
+				return false;
+		return true;
+	}
+
+	/***
+	 * Iterates the subsets in the order of their masks, read as binary numbers.
+	 */
+	@Override
+	public Iterator<Set<E>> iterator() {
+		int n = elements.size();
+		if (n <= Long.SIZE)
+			return new Iterator<Set<E>>() {
+				private final long last = n == Long.SIZE ? -1L : (1L << n) - 1;
+				private long mask = 0L;
+				private boolean hasnext = true;
+
+				@Override
+				public boolean hasNext() {
+					return hasnext;
+				}
+
+				@Override
+				public Set<E> next() {
+					if (!hasNext())
+						throw new NoSuchElementException();
+					Set<E> result = new MaskSubset(mask);
+					if (mask == last)
+						hasnext = false;
+					else
+						mask += 1;
+					return result;
+				}
+			};
+
+		return new Iterator<Set<E>>() {
+			private final BitSet mask = new BitSet(n);
+			private boolean hasnext = true;
+
+			@Override
+			public boolean hasNext() {
+				return hasnext;
+			}
+
+			@Override
+			public Set<E> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				Set<E> result = new BitSetSubset((BitSet) mask.clone());
+				// Binary increment of the mask
+				int zero = mask.nextClearBit(0);
+				if (zero >= n)
+					hasnext = false;
+				else {
+					mask.clear(0, zero);
+					mask.set(zero);
+				}
+				return result;
+			}
+		};
+	}
+
+	/***
+	 * A subset of a base with at most 64 elements.
+	 */
+	private final class MaskSubset extends AbstractSet<E> {
+		private final long mask;
+
+		MaskSubset(long mask) {
+			this.mask = mask;
+		}
+
+		BitmaskPowerSet<E> owner() {
+			return BitmaskPowerSet.this;
+		}
+
+		@Override
+		public int size() {
+			return Long.bitCount(mask);
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			int i = indexOf(o);
+			return i >= 0 && (mask & (1L << i)) != 0;
+		}
+
+		@Override
+		public Iterator<E> iterator() {
+			return new Iterator<E>() {
+				private long rest = mask;
+
+				@Override
+				public boolean hasNext() {
+					return rest != 0;
+				}
+
+				@Override
+				public E next() {
+					if (rest == 0)
+						throw new NoSuchElementException();
+					int i = Long.numberOfTrailingZeros(rest);
+					rest &= rest - 1;
+					return elements.get(i);
+				}
+			};
+		}
+	}
+
+	/***
+	 * A subset of a base with more than 64 elements.
+	 */
+	private final class BitSetSubset extends AbstractSet<E> {
+		private final BitSet mask;
+
+		BitSetSubset(BitSet mask) {
+			this.mask = mask;
+		}
+
+		@Override
+		public int size() {
+			return mask.cardinality();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			int i = indexOf(o);
+			return i >= 0 && mask.get(i);
+		}
+
+		@Override
+		public Iterator<E> iterator() {
+			return new Iterator<E>() {
+				private int i = mask.nextSetBit(0);
+
+				@Override
+				public boolean hasNext() {
+					return i >= 0;
+				}
+
+				@Override
+				public E next() {
+					if (i < 0)
+						throw new NoSuchElementException();
+					E result = elements.get(i);
+					i = mask.nextSetBit(i + 1);
+					return result;
+				}
+			};
+		}
+	}
+}
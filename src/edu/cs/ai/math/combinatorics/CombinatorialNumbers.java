@@ -0,0 +1,391 @@
+/**
+ *
+ */
+package edu.cs.ai.math.combinatorics;
+
+import java.math.BigInteger;
+
+/**
+ * The counting numbers of the enumerations in this package, i.e. binomial
+ * coefficients, factorials, powers, falling factorials, Stirling numbers of
+ * the second kind, Bell numbers and Fubini numbers.
+ *
+ * The binomial coefficients are computed by the multiplicative formula in
+ * {@code min(k, n-k)} steps. The other values are kept in memoised tables of
+ * {@code long}, which are grown on demand. Entries that do not fit into a
+ * {@code long} are marked as overflown and are computed in a second table of
+ * {@code BigInteger}. The methods ending with {@code Long} throw an
+ * {@link ArithmeticException} for such values.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+public final class CombinatorialNumbers {
+
+	/**
+	 * Marks an entry of a {@code long} table that does not fit into a
+	 * {@code long}.
+	 */
+	private static final long OVERFLOW = -1L;
+
+	private static volatile long[][] stirling2Rows = { { 1L } };
+	private static volatile BigInteger[][] bigStirling2Rows = { { BigInteger.ONE } };
+	private static volatile long[] factorials = { 1L };
+	private static volatile BigInteger[] bigFactorials = { BigInteger.ONE };
+
+	private CombinatorialNumbers() {
+	}
+
+	public static void main(String[] args) {
+		for (int n = 0; n <= 30; n++)
+			System.out.println(n + ": " + bell(n) + " " + fubini(n));
+	}
+
+	/***
+	 * The binomial coefficient {@code n} over {@code k}, i.e. the number of
+	 * {@code k}-subsets of an {@code n}-set.
+	 */
+	public static BigInteger binomial(int n, int k) {
+		long result = binomialEntry(n, k);
+		if (result != OVERFLOW)
+			return BigInteger.valueOf(result);
+		// C(n-k+i, i) = C(n-k+i-1, i-1) * (n-k+i) / i
+		k = Math.min(k, n - k);
+		BigInteger big = BigInteger.ONE;
+		for (int i = 1; i <= k; i++)
+			big = big.multiply(BigInteger.valueOf(n - k + i)).divide(BigInteger.valueOf(i));
+		return big;
+	}
+
+	/***
+	 * The binomial coefficient {@code n} over {@code k}.
+	 *
+	 * @throws ArithmeticException if the value does not fit into a {@code long}
+	 */
+	public static long binomialLong(int n, int k) {
+		return exact(binomialEntry(n, k));
+	}
+
+	/***
+	 * The factorial {@code n!}, i.e. the number of permutations of an
+	 * {@code n}-set.
+	 */
+	public static BigInteger factorial(int n) {
+		if (n < 0)
+			throw new IllegalArgumentException();
+		long result = factorialEntry(n);
+		if (result != OVERFLOW)
+			return BigInteger.valueOf(result);
+		return bigFactorials(n)[n];
+	}
+
+	/***
+	 * The factorial {@code n!}.
+	 *
+	 * @throws ArithmeticException if the value does not fit into a {@code long}
+	 */
+	public static long factorialLong(int n) {
+		if (n < 0)
+			throw new IllegalArgumentException();
+		return exact(factorialEntry(n));
+	}
+
+	/***
+	 * The power {@code n^k}, i.e. the number of {@code k}-tuples over an
+	 * {@code n}-set.
+	 */
+	public static BigInteger power(int n, int k) {
+		if (n < 0 || k < 0)
+			throw new IllegalArgumentException();
+		return BigInteger.valueOf(n).pow(k);
+	}
+
+	/***
+	 * The power {@code n^k}.
+	 *
+	 * @throws ArithmeticException if the value does not fit into a {@code long}
+	 */
+	public static long powerLong(int n, int k) {
+		if (n < 0 || k < 0)
+			throw new IllegalArgumentException();
+		long result = 1L;
+		for (int i = 0; i < k; i++)
+			result = Math.multiplyExact(result, n);
+		return result;
+	}
+
+	/***
+	 * The falling factorial {@code n (n-1) ... (n-k+1)}, i.e. the number of
+	 * {@code k}-permutations of an {@code n}-set.
+	 */
+	public static BigInteger fallingFactorial(int n, int k) {
+		if (n < 0 || k < 0 || k > n)
+			throw new IllegalArgumentException();
+		return factorial(n).divide(factorial(n - k));
+	}
+
+	/***
+	 * The falling factorial {@code n (n-1) ... (n-k+1)}.
+	 *
+	 * @throws ArithmeticException if the value does not fit into a {@code long}
+	 */
+	public static long fallingFactorialLong(int n, int k) {
+		if (n < 0 || k < 0 || k > n)
+			throw new IllegalArgumentException();
+		long result = 1L;
+		for (int i = 0; i < k; i++)
+			result = Math.multiplyExact(result, n - i);
+		return result;
+	}
+
+	/***
+	 * The Stirling number of the second kind {@code S(n,k)}, i.e. the number of
+	 * partitions of an {@code n}-set into exactly {@code k} blocks.
+	 */
+	public static BigInteger stirling2(int n, int k) {
+		long result = stirling2Entry(n, k);
+		if (result != OVERFLOW)
+			return BigInteger.valueOf(result);
+		return bigStirling2Rows(n)[n][k];
+	}
+
+	/***
+	 * The Stirling number of the second kind {@code S(n,k)}.
+	 *
+	 * @throws ArithmeticException if the value does not fit into a {@code long}
+	 */
+	public static long stirling2Long(int n, int k) {
+		return exact(stirling2Entry(n, k));
+	}
+
+	/***
+	 * The Bell number {@code B(n)}, i.e. the number of partitions of an
+	 * {@code n}-set.
+	 */
+	public static BigInteger bell(int n) {
+		long result = bellEntry(n);
+		if (result != OVERFLOW)
+			return BigInteger.valueOf(result);
+		BigInteger[] row = bigStirling2Rows(n)[n];
+		BigInteger sum = BigInteger.ZERO;
+		for (int k = 0; k <= n; k++)
+			sum = sum.add(row[k]);
+		return sum;
+	}
+
+	/***
+	 * The Bell number {@code B(n)}.
+	 *
+	 * @throws ArithmeticException if the value does not fit into a {@code long}
+	 */
+	public static long bellLong(int n) {
+		return exact(bellEntry(n));
+	}
+
+	/***
+	 * The Fubini number (ordered Bell number) {@code a(n)}, i.e. the number of
+	 * total preorders over an {@code n}-set.
+	 */
+	public static BigInteger fubini(int n) {
+		long result = fubiniEntry(n);
+		if (result != OVERFLOW)
+			return BigInteger.valueOf(result);
+		BigInteger[] row = bigStirling2Rows(n)[n];
+		BigInteger sum = BigInteger.ZERO;
+		for (int k = 0; k <= n; k++)
+			sum = sum.add(factorial(k).multiply(row[k]));
+		return sum;
+	}
+
+	/***
+	 * The Fubini number {@code a(n)}.
+	 *
+	 * @throws ArithmeticException if the value does not fit into a {@code long}
+	 */
+	public static long fubiniLong(int n) {
+		return exact(fubiniEntry(n));
+	}
+
+	private static long exact(long entry) {
+		if (entry == OVERFLOW)
+			throw new ArithmeticException("long overflow");
+		return entry;
+	}
+
+	private static long binomialEntry(int n, int k) {
+		if (n < 0)
+			throw new IllegalArgumentException();
+		if (k < 0 || k > n)
+			return 0L;
+		// C(n-k+i, i) = C(n-k+i-1, i-1) * (n-k+i) / i, where the partial results
+		// grow with i, so an overflow means that C(n,k) does not fit either
+		k = Math.min(k, n - k);
+		long result = 1L;
+		for (int i = 1; i <= k; i++) {
+			// Divide by g first, such that only the result itself can overflow
+			long g = gcd(result, i);
+			long factor = (n - k + i) / (i / g);
+			long hi = Math.multiplyHigh(result / g, factor);
+			result = (result / g) * factor;
+			if (hi != 0 || result < 0)
+				return OVERFLOW;
+		}
+		return result;
+	}
+
+	private static long gcd(long x, long y) {
+		while (y != 0) {
+			long r = x % y;
+			x = y;
+			y = r;
+		}
+		return x;
+	}
+
+	private static long factorialEntry(int n) {
+		long[] table = factorials;
+		if (n >= table.length)
+			table = growFactorials(n);
+		return table[n];
+	}
+
+	private static long stirling2Entry(int n, int k) {
+		if (n < 0)
+			throw new IllegalArgumentException();
+		if (k < 0 || k > n)
+			return 0L;
+		return stirling2Rows(n)[n][k];
+	}
+
+	private static long bellEntry(int n) {
+		if (n < 0)
+			throw new IllegalArgumentException();
+		long[] row = stirling2Rows(n)[n];
+		long sum = 0L;
+		for (int k = 0; k <= n; k++) {
+			if (row[k] == OVERFLOW)
+				return OVERFLOW;
+			sum = addOrOverflow(sum, row[k]);
+			if (sum == OVERFLOW)
+				return OVERFLOW;
+		}
+		return sum;
+	}
+
+	private static long fubiniEntry(int n) {
+		if (n < 0)
+			throw new IllegalArgumentException();
+		long[] row = stirling2Rows(n)[n];
+		long sum = 0L;
+		for (int k = 0; k <= n; k++) {
+			long f = factorialEntry(k);
+			if (row[k] == OVERFLOW || f == OVERFLOW)
+				return OVERFLOW;
+			sum = addOrOverflow(sum, multiplyOrOverflow(f, row[k]));
+			if (sum == OVERFLOW)
+				return OVERFLOW;
+		}
+		return sum;
+	}
+
+	private static long addOrOverflow(long x, long y) {
+		if (x == OVERFLOW || y == OVERFLOW)
+			return OVERFLOW;
+		long r = x + y;
+		if (r < 0)
+			return OVERFLOW;
+		return r;
+	}
+
+	private static long multiplyOrOverflow(long x, long y) {
+		if (x == OVERFLOW || y == OVERFLOW)
+			return OVERFLOW;
+		long hi = Math.multiplyHigh(x, y);
+		long r = x * y;
+		if (hi != 0 || r < 0)
+			return OVERFLOW;
+		return r;
+	}
+
+	/*
+	 * The tables are replaced as a whole when they grow, so readers never need to
+	 * synchronise.
+	 */
+
+	private static long[][] stirling2Rows(int n) {
+		long[][] rows = stirling2Rows;
+		if (n < rows.length)
+			return rows;
+		synchronized (CombinatorialNumbers.class) {
+			rows = stirling2Rows;
+			if (n < rows.length)
+				return rows;
+			long[][] grown = new long[Math.max(n + 1, 2 * rows.length)][];
+			System.arraycopy(rows, 0, grown, 0, rows.length);
+			for (int i = rows.length; i < grown.length; i++) {
+				// S(i,k) = k * S(i-1,k) + S(i-1,k-1)
+				grown[i] = new long[i + 1];
+				for (int k = 1; k <= i; k++) {
+					long upper = k < i ? multiplyOrOverflow(k, grown[i - 1][k]) : 0L;
+					grown[i][k] = addOrOverflow(upper, grown[i - 1][k - 1]);
+				}
+			}
+			stirling2Rows = grown;
+			return grown;
+		}
+	}
+
+	private static BigInteger[][] bigStirling2Rows(int n) {
+		BigInteger[][] rows = bigStirling2Rows;
+		if (n < rows.length)
+			return rows;
+		synchronized (CombinatorialNumbers.class) {
+			rows = bigStirling2Rows;
+			if (n < rows.length)
+				return rows;
+			BigInteger[][] grown = new BigInteger[Math.max(n + 1, 2 * rows.length)][];
+			System.arraycopy(rows, 0, grown, 0, rows.length);
+			for (int i = rows.length; i < grown.length; i++) {
+				grown[i] = new BigInteger[i + 1];
+				grown[i][0] = BigInteger.ZERO;
+				for (int k = 1; k <= i; k++) {
+					BigInteger upper = k < i ? grown[i - 1][k].multiply(BigInteger.valueOf(k)) : BigInteger.ZERO;
+					grown[i][k] = upper.add(grown[i - 1][k - 1]);
+				}
+			}
+			bigStirling2Rows = grown;
+			return grown;
+		}
+	}
+
+	private static long[] growFactorials(int n) {
+		synchronized (CombinatorialNumbers.class) {
+			long[] table = factorials;
+			if (n < table.length)
+				return table;
+			long[] grown = new long[Math.max(n + 1, 2 * table.length)];
+			System.arraycopy(table, 0, grown, 0, table.length);
+			for (int i = table.length; i < grown.length; i++)
+				grown[i] = multiplyOrOverflow(grown[i - 1], i);
+			factorials = grown;
+			return grown;
+		}
+	}
+
+	private static BigInteger[] bigFactorials(int n) {
+		BigInteger[] table = bigFactorials;
+		if (n < table.length)
+			return table;
+		synchronized (CombinatorialNumbers.class) {
+			table = bigFactorials;
+			if (n < table.length)
+				return table;
+			BigInteger[] grown = new BigInteger[Math.max(n + 1, 2 * table.length)];
+			System.arraycopy(table, 0, grown, 0, table.length);
+			for (int i = table.length; i < grown.length; i++)
+				grown[i] = grown[i - 1].multiply(BigInteger.valueOf(i));
+			bigFactorials = grown;
+			return grown;
+		}
+	}
+}
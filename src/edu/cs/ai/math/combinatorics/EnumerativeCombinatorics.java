@@ -1,31 +1,99 @@
 package edu.cs.ai.math.combinatorics;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class EnumerativeCombinatorics {
+	/***
+	 * Hands all variations of length {@code elements.size()} over
+	 * {@code elements} to {@code eater}. The variations are generated by an
+	 * {@link Odometer} and the list given to {@code eater} is a read-only view,
+	 * that changes in place between two visits.
+	 * 
+	 * @param elements the elements of the variations
+	 * @param eater    the consumer of the variations
+	 */
 	static <T> void generateVariations(List<T> elements, Consumer<List<T>> eater) {
-		generateVariations(elements, new LinkedList<>(), eater, elements.size());
+		Odometer odometer = new Odometer(elements.size(), elements.size());
+		List<T> variation = odometer.view(elements);
+		do {
+			eater.accept(variation);
+		} while (odometer.advance());
 	}
 
-	static <T> void generateVariations(List<T> elements, LinkedList<T> variation, Consumer<List<T>> eater, int depth) {
-		if (depth <= 0)
-			eater.accept(variation);
-		else {
-			for (int i = 0; i < elements.size(); i++) {
-				variation.addLast(elements.get(i));
-				generateVariations(elements, variation, eater, depth - 1);
-				variation.removeLast();
-			}
-		}
+	/***
+	 * Hands the variations of length {@code elements.size()} over
+	 * {@code elements} to {@code eater}, whose prefixes all satisfy
+	 * {@code prefix}. A failing prefix cuts off all its completions, see
+	 * {@link KTupleEnumeration#search(List, int, Predicate, Consumer, boolean)}.
+	 * The lists given to {@code prefix} and {@code eater} are read-only views.
+	 * 
+	 * @param elements the elements of the variations
+	 * @param prefix   the prefix-closed test
+	 * @param eater    the consumer of the variations
+	 */
+	public static <T> void generateVariations(List<T> elements, Predicate<? super List<T>> prefix,
+			Consumer<? super List<T>> eater) {
+		KTupleEnumeration.search(elements, elements.size(), prefix, eater, false);
+	}
+
+	/***
+	 * Batched version of {@link #generateVariations(List, Consumer)} over the
+	 * indices {@code 0..size-1}. The variations are copied into the rows of
+	 * {@code block}, and {@code eater} is called with the number of filled rows
+	 * whenever the block is full or all variations are visited.
+	 * 
+	 * @param size  the number of indices and the length of the variations
+	 * @param block the caller supplied block, whose rows have at least
+	 *              {@code size} entries
+	 * @param eater the consumer of the number of filled rows
+	 */
+	public static void generateVariations(int size, int[][] block, IntConsumer eater) {
+		if (size < 0 || block == null || block.length == 0)
+			throw new IllegalArgumentException();
+
+		Odometer odometer = new Odometer(size, size);
+		while (odometer.hasCurrent())
+			eater.accept(odometer.fill(block));
+	}
+
+	/***
+	 * The number of variations visited by {@link #generateVariations(List, Consumer)},
+	 * i.e. {@code n^n} for {@code n = elements.size()}.
+	 */
+	public static <T> BigInteger countVariations(List<T> elements) {
+		return CombinatorialNumbers.power(elements.size(), elements.size());
+	}
+
+	/***
+	 * The number of permutations visited by
+	 * {@link #generatePermutations(List, Consumer)}, i.e. {@code n!} for
+	 * {@code n = elements.size()}.
+	 */
+	public static <T> BigInteger countPermutations(List<T> elements) {
+		return CombinatorialNumbers.factorial(elements.size());
+	}
+
+	/***
+	 * Visits every distinct permutation of {@code elements} exactly once, also
+	 * when elements are repeated, see {@link MultisetPermutationsLexicographic}.
+	 */
+	public static <T> void generateDistinctPermutations(List<T> elements, Consumer<List<T>> eater) {
+		MultisetPermutationsLexicographic.iterator(elements).forEachRemaining(eater);
 	}
 
 	public static <T> void generatePermutations(List<T> elements, Consumer<List<T>> eater) {
@@ -64,14 +132,7 @@ public class EnumerativeCombinatorics {
 			int layers = Collections.max(list) + 1;
 
 			ArrayList<Layer<T>> tmp = new ArrayList<>(layers);
-			for (int schicht = 0; schicht < layers; schicht++) {
-				if (schicht == 0)
-					tmp.add(new Layer<>(schicht));
-				else {
-					tmp.get(schicht - 1).insertAfter(new Layer<>(schicht));
-					tmp.add(tmp.get(schicht - 1).getNext());
-				}
-			}
+			linkLayers(tmp, layers);
 
 			for (int i = 0; i < list.size(); i++) {
 				int l = list.get(i);
@@ -82,63 +143,124 @@ public class EnumerativeCombinatorics {
 		return result;
 	}
 
-	public static <E> Set<Set<E>> powerSet(Collection<E> set) {
-		Set<Set<E>> result = new HashSet<>();
-		result.add(new HashSet<E>());
-		for (E element : set) {
-			Set<Set<E>> previousSets = new HashSet<>(result);
-			for (Set<E> subSet : previousSets) {
-				Set<E> newSubSet = new HashSet<E>(subSet);
-				newSubSet.add(element);
-				result.add(newSubSet);
-			}
-		}
-		return result;
+	/***
+	 * Returns a {@code Stream} of all total preorders over {@code source} as
+	 * lists of linked {@link Layer}s. The preorders are generated lazily by
+	 * {@link PreorderEnumeration}, one at a time.
+	 * 
+	 * @param source the elements of the preorders
+	 * @param reuse  if true, a single chain of layers is updated in place for
+	 *               every preorder and the same unmodifiable list is returned
+	 *               each time, such that the memory stays linear in
+	 *               {@code source.size()}. The visited preorder must then be
+	 *               copied if it is retained.
+	 */
+	public static <T> Stream<List<Layer<T>>> streamPreorders(List<T> source, boolean reuse) {
+		Iterator<List<Layer<T>>> itr = iteratePreorders(source, reuse);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(itr, Spliterator.NONNULL), false);
 	}
 
-	public static HashSet<List<Integer>> genAllPreorders(int size) {
-		List<Integer> range = IntStream.rangeClosed(0, size - 1).boxed().collect(Collectors.toList());
-		final HashSet<List<Integer>> preOrds = new HashSet<>();
+	/***
+	 * Returns an iterator over all total preorders over {@code source} as lists of
+	 * linked {@link Layer}s.
+	 * 
+	 * @see #streamPreorders(List, boolean)
+	 */
+	public static <T> Iterator<List<Layer<T>>> iteratePreorders(List<T> source, boolean reuse) {
+		if (source == null)
+			throw new IllegalArgumentException();
 
-		EnumerativeCombinatorics.generateVariations(range, new Consumer<>() {
-			// int count = 0;
+		return new Iterator<List<Layer<T>>>() {
+			private final PreorderEnumeration.Cursor cursor = new PreorderEnumeration.Cursor(source.size());
+			private final ArrayList<Layer<T>> layers = new ArrayList<>(source.size());
+			private final List<Layer<T>> view = Collections.unmodifiableList(layers);
+			private final ArrayList<Layer<T>> pool = new ArrayList<>(source.size());
+			private boolean hasnext = true;
 
 			@Override
-			public void accept(List<Integer> variation) {
-				int min = Collections.min(variation);
-				ArrayList<Integer> tmp = new ArrayList<>(size);
-				for (Integer i : variation) {
-					tmp.add(i - min);
-				}
-				// Remove empty layers:
-				for (int i = 1; i < Collections.max(tmp);) {
-					if (!tmp.contains(i)) {
-						for (int j = 0; j < tmp.size(); j++) {
-							if (tmp.get(j) > i)
-								tmp.set(j, tmp.get(j) - 1);
-						}
-					} else
-						i++;
+			public boolean hasNext() {
+				return hasnext;
+			}
+
+			@Override
+			public List<Layer<T>> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+
+				List<Layer<T>> result;
+				if (reuse) {
+					relinkLayers(pool, layers, cursor.m);
+					result = view;
+				} else {
+					result = new ArrayList<>(cursor.m);
+					linkLayers(result, cursor.m);
 				}
 
-				preOrds.add(tmp);
-				// count += 1;
-				// if (count % 1 == 0 && (tmp.toString().contains("7")))
-				// System.out.println(count + " " + tmp);
+				int[] code = cursor.current();
+				for (int i = 0; i < code.length; i++)
+					result.get(code[i]).elements.add(source.get(i));
+
+				hasnext = cursor.advance();
+				return result;
 			}
-		});
-
-		// System.out.println(preOrds.size());
-		// LocalTime start = LocalTime.now();
-		// for(long i = 0L; i < 250000000000L; i++)
-		// {
-		//
-		// if (i % 1000000000L == 0)
-		// System.out.println(i);
-		// }
-		// LocalTime end = LocalTime.now();
-		// System.out.println("blub " + Duration.between(start, end));
+		};
+	}
 
+	/***
+	 * Appends {@code count} new layers, linked in the order of their rank, to
+	 * {@code layers}.
+	 */
+	private static <T> void linkLayers(List<Layer<T>> layers, int count) {
+		for (int schicht = 0; schicht < count; schicht++) {
+			if (schicht == 0)
+				layers.add(new Layer<>(schicht));
+			else {
+				layers.get(schicht - 1).insertAfter(new Layer<>(schicht));
+				layers.add(layers.get(schicht - 1).getNext());
+			}
+		}
+	}
+
+	/***
+	 * Fills {@code layers} with the first {@code count} empty layers of
+	 * {@code pool}, linked in the order of their rank. The pool is only extended,
+	 * so its layers are reused by all calls.
+	 */
+	private static <T> void relinkLayers(List<Layer<T>> pool, List<Layer<T>> layers, int count) {
+		while (pool.size() < count)
+			pool.add(new Layer<>(pool.size()));
+
+		layers.clear();
+		for (int schicht = 0; schicht < count; schicht++) {
+			Layer<T> layer = pool.get(schicht);
+			layer.elements.clear();
+			layer.prev = pool.get(schicht == 0 ? count - 1 : schicht - 1);
+			layer.next = pool.get(schicht == count - 1 ? 0 : schicht + 1);
+			layers.add(layer);
+		}
+	}
+
+	/***
+	 * Returns the powerset over the given collection as unmodifiable view, see
+	 * {@link PowerSet#view(Collection)}.
+	 */
+	public static <E> Set<Set<E>> powerSet(Collection<E> set) {
+		return PowerSet.view(set);
+	}
+
+	/***
+	 * Constructs the layer vectors of all total preorders over {@code size}
+	 * elements. The preorders are generated directly by
+	 * {@link PreorderEnumeration}, use {@link PreorderEnumeration#stream(int)} or
+	 * {@link PreorderEnumeration#forEach(int, Consumer)} to avoid holding all of
+	 * them at once.
+	 * 
+	 * @param size the number of elements
+	 * @return The set of all layer vectors
+	 */
+	public static HashSet<List<Integer>> genAllPreorders(int size) {
+		final HashSet<List<Integer>> preOrds = new HashSet<>();
+		PreorderEnumeration.iterator(size).forEachRemaining(preOrds::add);
 		return preOrds;
 	}
 }
@@ -1,14 +1,21 @@
 package edu.cs.ai.math.combinatorics;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -30,14 +37,44 @@ public class KCombinationLexicographic {
 			System.out.println(itr.next());
 	}
 
+	/***
+	 * The number of {@code k}-subsets enumerated by {@link #iterator(List, int)},
+	 * i.e. the binomial coefficient {@code input.size()} over {@code k}.
+	 * 
+	 * @param input a list with the elements.
+	 */
+	public static <E> BigInteger count(List<E> input, int k) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		if (k < 0 || k > input.size())
+			throw new IllegalArgumentException();
+		return CombinatorialNumbers.binomial(input.size(), k);
+	}
+
 	/**
-	 * Returns a {@code Stream} of all Subsets of the input collection
+	 * Returns a {@code Stream} of all Subsets of the input collection. If the
+	 * number of k-subsets fits into a {@code long}, the stream is sized and splits
+	 * its rank range in halves, so it is suited for parallel processing.
 	 * 
 	 * @author Kai Sauerwald.
 	 */
 	public static <E> Stream<Set<E>> stream(List<E> input, int k) {
-		Iterator<Set<E>> itr = iterator(input, k);
-		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(itr, Spliterator.IMMUTABLE), false);
+		if (input == null)
+			throw new IllegalArgumentException();
+		if (k < 0 || k > input.size())
+			throw new IllegalArgumentException();
+		long size;
+		try {
+			size = CombinatorialNumbers.binomialLong(input.size(), k);
+		} catch (ArithmeticException e) {
+			// Ordered like the sized stream, also when run in parallel
+			Iterator<Set<E>> itr = iterator(input, k);
+			return StreamSupport.stream(
+					Spliterators.spliteratorUnknownSize(itr, Spliterator.ORDERED | Spliterator.IMMUTABLE), false);
+		}
+		List<E> list = new ArrayList<>(input);
+		boolean distinct = new HashSet<>(list).size() == list.size();
+		return StreamSupport.stream(new CombinationSpliterator<>(list, k, 0L, size, distinct), false);
 	}
 
 	/***
@@ -74,16 +111,42 @@ public class KCombinationLexicographic {
 
 			};
 
-		ArrayList<Integer> startpos = new ArrayList<>(k);
+		int[] startpos = new int[k];
 		for (int i = 0; i < k; i++) {
-			startpos.add(i);
+			startpos[i] = i;
+		}
+		return iterator(input, startpos);
+	}
+
+	/***
+	 * Returns an iterator, that starts at the k-subset with the given
+	 * lexicographic rank and visits all following k-subsets.
+	 * 
+	 * @param input a list with the elements.
+	 * @param rank  the rank of the first k-subset, see
+	 *              {@link #rank(int, int[])}
+	 */
+	public static <E> Iterator<Set<E>> iterator(List<E> input, int k, long rank) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		if (k < 0 || k > input.size())
+			throw new IllegalArgumentException();
+		if (k == 0) {
+			if (rank != 0L)
+				throw new IllegalArgumentException();
+			return iterator(input, k);
 		}
 
+		int[] startpos = new int[k];
+		unrank(input.size(), rank, startpos);
+		return iterator(input, startpos);
+	}
+
+	private static <E> Iterator<Set<E>> iterator(List<E> input, int[] startpos) {
 		// This iterator implements a loop
 		return new Iterator<Set<E>>() {
-			private int ik = k;
 			private boolean hasnext = true;
-			private ArrayList<Integer> pos = startpos;
+			private int[] pos = startpos;
 			private List<E> list = Collections.unmodifiableList(input);
 
 			@Override
@@ -98,34 +161,588 @@ public class KCombinationLexicographic {
 
 				HashSet<E> set = new HashSet<>();
 
-				for (Integer ipos : pos) {
+				for (int ipos : pos) {
 					set.add(list.get(ipos));
 				}
 
-				boolean done = false;
-				int i = ik - 1;
-				int imax = list.size() - 1;
-				while (!done) {
-					if (pos.get(i) == imax) {
-						if (i == 0) {
-							done = true;
-							hasnext = false;
-						} else {
-							i -= 1;
-							imax -= 1;
-						}
-						continue;
-					}
-
-					pos.set(i, pos.get(i) + 1);
-					for (int j = 1; i + j < ik; j++) {
-						pos.set(i + j, pos.get(i) + j);
-					}
-					done = true;
+				hasnext = KCombinationLexicographic.next(list.size(), pos);
+				return set;
+			}
+		};
+	}
+
+	/***
+	 * Returns an iterator over the same k-subsets as {@link #iterator(List, int)},
+	 * which returns the same read-only view for every k-subset and updates it in
+	 * place. Hence no object is allocated per k-subset. Use
+	 * {@link SubsetView#snapshot()} to retain a k-subset.
+	 * 
+	 * @param input a list with the elements.
+	 */
+	public static <E> Iterator<SubsetView<E>> reusingIterator(List<E> input, int k) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		if (k < 0 || k > input.size())
+			throw new IllegalArgumentException();
+
+		int[] startpos = new int[k];
+		for (int i = 0; i < k; i++) {
+			startpos[i] = i;
+		}
+
+		return new Iterator<SubsetView<E>>() {
+			private boolean hasnext = true;
+			private final int[] pos = startpos;
+			private final SubsetView<E> view = new SubsetView<>(Collections.unmodifiableList(input), k);
+
+			@Override
+			public boolean hasNext() {
+				return hasnext;
+			}
+
+			@Override
+			public SubsetView<E> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+
+				view.assign(pos, pos.length);
+				hasnext = KCombinationLexicographic.next(input.size(), pos);
+				return view;
+			}
+		};
+	}
+
+	/***
+	 * Returns a {@code LongStream} of all k-subsets of {@code 0..n-1} as bitmasks
+	 * in colexicographic order, see {@link #maskIterator(int, int)}.
+	 * 
+	 * @param n the size of the base, at most 64
+	 */
+	public static LongStream masks(int n, int k) {
+		PrimitiveIterator.OfLong itr = maskIterator(n, k);
+		return StreamSupport.longStream(Spliterators.spliterator(itr, CombinatorialNumbers.binomialLong(n, k),
+				Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+	}
+
+	/***
+	 * Returns an iterator over all k-subsets of {@code 0..n-1} as bitmasks, where
+	 * bit {@code i} marks the element at position {@code i}. The masks are
+	 * visited in colexicographic order, i.e. in increasing numerical order, and
+	 * each step is computed by Gosper's hack without any allocation.
+	 * 
+	 * @param n the size of the base, at most 64
+	 */
+	public static PrimitiveIterator.OfLong maskIterator(int n, int k) {
+		if (n < 0 || n > Long.SIZE)
+			throw new IllegalArgumentException();
+		if (k < 0 || k > n)
+			throw new IllegalArgumentException();
+
+		long first = k == 0 ? 0L : -1L >>> (Long.SIZE - k);
+		long last = first << (n - k);
+
+		return new PrimitiveIterator.OfLong() {
+			private long mask = first;
+			private boolean hasnext = true;
+
+			@Override
+			public boolean hasNext() {
+				return hasnext;
+			}
+
+			@Override
+			public long nextLong() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+
+				long result = mask;
+				if (mask == last)
+					hasnext = false;
+				else {
+					// Gosper's hack
+					long c = mask & -mask;
+					long r = mask + c;
+					mask = (((r ^ mask) >>> 2) / c) | r;
+				}
+				return result;
+			}
+		};
+	}
+
+	/***
+	 * Returns an iterator over all k-subsets of {@code 0..n-1} as {@link BitSet},
+	 * in colexicographic order like {@link #maskIterator(int, int)}, but without
+	 * bound on {@code n}. Every returned {@link BitSet} is a fresh copy.
+	 * 
+	 * @param n the size of the base
+	 */
+	public static Iterator<BitSet> bitSetIterator(int n, int k) {
+		if (n < 0)
+			throw new IllegalArgumentException();
+		if (k < 0 || k > n)
+			throw new IllegalArgumentException();
+
+		BitSet first = new BitSet(n);
+		first.set(0, k);
+
+		return new Iterator<BitSet>() {
+			private final BitSet mask = first;
+			private boolean hasnext = true;
+
+			@Override
+			public boolean hasNext() {
+				return hasnext;
+			}
+
+			@Override
+			public BitSet next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+
+				BitSet result = (BitSet) mask.clone();
+				// Move the lowest block of ones: its highest bit goes up by one, the
+				// others to the bottom.
+				int t = mask.nextSetBit(0);
+				int u = t < 0 ? n : mask.nextClearBit(t);
+				if (u >= n)
+					hasnext = false;
+				else {
+					mask.set(u);
+					mask.clear(t, u);
+					mask.set(0, u - t - 1);
 				}
+				return result;
+			}
+		};
+	}
+
+	/***
+	 * Moves the ascending positions {@code pos} to the lexicographically next
+	 * k-subset of {@code 0..n-1}, where {@code k = pos.length}.
+	 * 
+	 * @return false, if {@code pos} is the last k-subset. In this case
+	 *         {@code pos} is left unchanged.
+	 */
+	public static boolean next(int n, int[] pos) {
+		return next(n, pos, pos.length);
+	}
 
+	/***
+	 * Like {@link #next(int, int[])}, on the first {@code ik} positions.
+	 */
+	static boolean next(int n, int[] pos, int ik) {
+		int i = ik - 1;
+		int imax = n - 1;
+		while (i >= 0 && pos[i] == imax) {
+			i -= 1;
+			imax -= 1;
+		}
+		if (i < 0)
+			return false;
+
+		pos[i] = pos[i] + 1;
+		for (int j = 1; i + j < ik; j++) {
+			pos[i + j] = pos[i] + j;
+		}
+		return true;
+	}
+
+	/***
+	 * Computes the lexicographic rank of a k-subset of {@code 0..n-1} via the
+	 * combinatorial number system: the complements {@code n-1-pos[i]} form the
+	 * combinadic of the reversed rank.
+	 * 
+	 * @param n   the size of the base
+	 * @param pos the ascending positions of the k-subset
+	 * @throws ArithmeticException if the number of k-subsets does not fit into a
+	 *                             {@code long}
+	 */
+	public static long rank(int n, int[] pos) {
+		int k = pos.length;
+		long reversed = 0L;
+		for (int i = 0; i < k; i++) {
+			if (pos[i] < 0 || pos[i] >= n || (i > 0 && pos[i] <= pos[i - 1]))
+				throw new IllegalArgumentException();
+			reversed += CombinatorialNumbers.binomialLong(n - 1 - pos[i], k - i);
+		}
+		return CombinatorialNumbers.binomialLong(n, k) - 1 - reversed;
+	}
+
+	/***
+	 * Writes the k-subset of {@code 0..n-1} with the given lexicographic rank as
+	 * ascending positions into {@code pos}, where {@code k = pos.length}.
+	 * 
+	 * @param n    the size of the base
+	 * @param rank the rank, between {@code 0} and {@code C(n,k)-1}
+	 * @param pos  the array receiving the positions
+	 * @throws ArithmeticException if the number of k-subsets does not fit into a
+	 *                             {@code long}
+	 */
+	public static void unrank(int n, long rank, int[] pos) {
+		int k = pos.length;
+		if (k > n)
+			throw new IllegalArgumentException();
+		long total = CombinatorialNumbers.binomialLong(n, k);
+		if (rank < 0L || rank >= total)
+			throw new IllegalArgumentException();
+
+		long reversed = total - 1 - rank;
+		int d = n - 1;
+		for (int i = 0; i < k; i++) {
+			long c;
+			while ((c = CombinatorialNumbers.binomialLong(d, k - i)) > reversed)
+				d -= 1;
+			pos[i] = n - 1 - d;
+			reversed -= c;
+			d -= 1;
+		}
+	}
+
+	/***
+	 * Computes the lexicographic rank of a k-subset of the input.
+	 * 
+	 * @param input  a list with the elements.
+	 * @param subset a subset of the elements
+	 */
+	public static <E> long rank(List<E> input, Set<E> subset) {
+		int[] pos = new int[subset.size()];
+		int i = 0;
+		for (E e : subset) {
+			int ipos = input.indexOf(e);
+			if (ipos < 0)
+				throw new IllegalArgumentException();
+			pos[i++] = ipos;
+		}
+		Arrays.sort(pos);
+		return rank(input.size(), pos);
+	}
+
+	/***
+	 * Returns the k-subset of the input with the given lexicographic rank.
+	 * 
+	 * @param input a list with the elements.
+	 * @param rank  the rank, between {@code 0} and {@code C(n,k)-1}
+	 */
+	public static <E> Set<E> unrank(List<E> input, int k, long rank) {
+		if (k < 0)
+			throw new IllegalArgumentException();
+		int[] pos = new int[k];
+		unrank(input.size(), rank, pos);
+		HashSet<E> set = new HashSet<>();
+		for (int ipos : pos)
+			set.add(input.get(ipos));
+		return set;
+	}
+
+	/***
+	 * Computes the lexicographic rank of a k-subset of {@code 0..n-1} like
+	 * {@link #rank(int, int[])}, for any number of k-subsets.
+	 * 
+	 * @param n   the size of the base
+	 * @param pos the ascending positions of the k-subset
+	 */
+	public static BigInteger bigRank(int n, int[] pos) {
+		int k = pos.length;
+		BigInteger reversed = BigInteger.ZERO;
+		for (int i = 0; i < k; i++) {
+			if (pos[i] < 0 || pos[i] >= n || (i > 0 && pos[i] <= pos[i - 1]))
+				throw new IllegalArgumentException();
+			reversed = reversed.add(CombinatorialNumbers.binomial(n - 1 - pos[i], k - i));
+		}
+		return CombinatorialNumbers.binomial(n, k).subtract(BigInteger.ONE).subtract(reversed);
+	}
+
+	/***
+	 * Computes the lexicographic rank of the k-subset of {@code 0..n-1}, which
+	 * is given as {@link BitSet}, where {@code k = subset.cardinality()}.
+	 * 
+	 * @param n      the size of the base
+	 * @param subset the k-subset
+	 */
+	public static BigInteger bigRank(int n, BitSet subset) {
+		return bigRank(n, subset.stream().toArray());
+	}
+
+	/***
+	 * Writes the k-subset of {@code 0..n-1} with the given lexicographic rank as
+	 * ascending positions into {@code pos}, where {@code k = pos.length}, like
+	 * {@link #unrank(int, long, int[])}, for any number of k-subsets.
+	 * 
+	 * @param n    the size of the base
+	 * @param rank the rank, between {@code 0} and {@code C(n,k)-1}
+	 * @param pos  the array receiving the positions
+	 */
+	public static void unrank(int n, BigInteger rank, int[] pos) {
+		int k = pos.length;
+		if (k > n)
+			throw new IllegalArgumentException();
+		BigInteger total = CombinatorialNumbers.binomial(n, k);
+		if (rank.signum() < 0 || rank.compareTo(total) >= 0)
+			throw new IllegalArgumentException();
+
+		BigInteger reversed = total.subtract(BigInteger.ONE).subtract(rank);
+		int d = n - 1;
+		for (int i = 0; i < k; i++) {
+			BigInteger c;
+			while ((c = CombinatorialNumbers.binomial(d, k - i)).compareTo(reversed) > 0)
+				d -= 1;
+			pos[i] = n - 1 - d;
+			reversed = reversed.subtract(c);
+			d -= 1;
+		}
+	}
+
+	/***
+	 * Returns the k-subset of {@code 0..n-1} with the given lexicographic rank as
+	 * {@link BitSet}.
+	 * 
+	 * @param n    the size of the base
+	 * @param rank the rank, between {@code 0} and {@code C(n,k)-1}
+	 */
+	public static BitSet unrankBitSet(int n, int k, BigInteger rank) {
+		if (k < 0)
+			throw new IllegalArgumentException();
+		int[] pos = new int[k];
+		unrank(n, rank, pos);
+		BitSet subset = new BitSet(n);
+		for (int ipos : pos)
+			subset.set(ipos);
+		return subset;
+	}
+
+	/***
+	 * Moves the k-subset of {@code 0..n-1} given as {@link BitSet} to its
+	 * lexicographic successor, i.e. the order of {@link #next(int, int[])}.
+	 * 
+	 * @return false, if {@code subset} is the last k-subset. In this case
+	 *         {@code subset} is left unchanged.
+	 */
+	public static boolean next(int n, BitSet subset) {
+		// The ones at the top cannot move any further
+		int top = n;
+		while (top > 0 && subset.get(top - 1))
+			top -= 1;
+		int i = top == 0 ? -1 : subset.previousSetBit(top - 1);
+		if (i < 0)
+			return false;
+
+		// Move i one up and pull the top ones down behind it
+		int ones = n - top;
+		subset.clear(top, n);
+		subset.clear(i);
+		subset.set(i + 1, i + 2 + ones);
+		return true;
+	}
+
+	/***
+	 * Returns an iterator, that starts at the k-subset with the given
+	 * lexicographic rank and visits all following k-subsets. This allows to
+	 * resume an enumeration from a stored rank for any number of k-subsets.
+	 * 
+	 * @param input a list with the elements.
+	 * @param rank  the rank of the first k-subset, see
+	 *              {@link #bigRank(int, int[])}
+	 */
+	public static <E> Iterator<Set<E>> iterator(List<E> input, int k, BigInteger rank) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		return iterator(input, k, rank, CombinatorialNumbers.binomial(input.size(), k));
+	}
+
+	/***
+	 * Returns an iterator over the k-subsets with a lexicographic rank in
+	 * {@code [from, to)}. The ranges of {@link #shards(int, int, int)} split the
+	 * k-subsets into parts, which can be enumerated independently.
+	 * 
+	 * @param input a list with the elements.
+	 * @param from  the rank of the first k-subset
+	 * @param to    the rank after the last k-subset
+	 */
+	public static <E> Iterator<Set<E>> iterator(List<E> input, int k, BigInteger from, BigInteger to) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		if (k < 0 || k > input.size())
+			throw new IllegalArgumentException();
+		if (from.signum() < 0 || from.compareTo(to) > 0
+				|| to.compareTo(CombinatorialNumbers.binomial(input.size(), k)) > 0)
+			throw new IllegalArgumentException();
+
+		int[] startpos = new int[k];
+		int[] lastpos = new int[k];
+		boolean empty = from.equals(to);
+		if (!empty) {
+			unrank(input.size(), from, startpos);
+			unrank(input.size(), to.subtract(BigInteger.ONE), lastpos);
+		}
+
+		return new Iterator<Set<E>>() {
+			private boolean hasnext = !empty;
+			private final int[] pos = startpos;
+			private final List<E> list = Collections.unmodifiableList(input);
+
+			@Override
+			public boolean hasNext() {
+				return hasnext;
+			}
+
+			@Override
+			public Set<E> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+
+				HashSet<E> set = new HashSet<>();
+				for (int ipos : pos)
+					set.add(list.get(ipos));
+
+				hasnext = !Arrays.equals(pos, lastpos) && KCombinationLexicographic.next(list.size(), pos);
 				return set;
 			}
 		};
 	}
+
+	/***
+	 * Splits the lexicographic ranks of the k-subsets of {@code 0..n-1} into
+	 * {@code parts} consecutive ranges of equal size, up to one. The range
+	 * {@code i} is {@code [bounds[i], bounds[i+1])}, so the result has
+	 * {@code parts + 1} entries. The split only depends on the arguments, hence
+	 * all workers of a distributed enumeration agree on it.
+	 * 
+	 * @param n     the size of the base
+	 * @param parts the number of ranges
+	 */
+	public static BigInteger[] shards(int n, int k, int parts) {
+		if (n < 0 || k < 0 || k > n || parts <= 0)
+			throw new IllegalArgumentException();
+		BigInteger total = CombinatorialNumbers.binomial(n, k);
+		BigInteger[] bounds = new BigInteger[parts + 1];
+		for (int i = 0; i <= parts; i++)
+			bounds[i] = total.multiply(BigInteger.valueOf(i)).divide(BigInteger.valueOf(parts));
+		return bounds;
+	}
+
+	/***
+	 * Writes a uniform random k-subset of {@code 0..n-1} as ascending positions
+	 * into {@code pos}, where {@code k = pos.length}. This is the selection
+	 * sampling of Knuth (Algorithm S), which takes {@code O(n)} time.
+	 * 
+	 * @param n      the size of the base
+	 * @param pos    the array receiving the positions
+	 * @param random the source of randomness
+	 */
+	public static void sample(int n, int[] pos, SplittableRandom random) {
+		int k = pos.length;
+		if (k > n)
+			throw new IllegalArgumentException();
+		int selected = 0;
+		for (int t = 0; t < n && selected < k; t++) {
+			// select t with probability (k - selected) / (n - t)
+			if (random.nextInt(n - t) < k - selected)
+				pos[selected++] = t;
+		}
+	}
+
+	/***
+	 * Returns a uniform random k-subset of the input.
+	 * 
+	 * @param input  a list with the elements.
+	 * @param random the source of randomness
+	 */
+	public static <E> Set<E> sample(List<E> input, int k, SplittableRandom random) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		if (k < 0 || k > input.size())
+			throw new IllegalArgumentException();
+		int[] pos = new int[k];
+		sample(input.size(), pos, random);
+		HashSet<E> set = new HashSet<>();
+		for (int ipos : pos)
+			set.add(input.get(ipos));
+		return set;
+	}
+
+	/***
+	 * A spliterator over the rank range {@code [origin, fence)}, which is split
+	 * in halves. The positions of a range are seeded by unranking its origin when
+	 * the range is traversed first.
+	 */
+	static final class CombinationSpliterator<E> implements Spliterator<Set<E>> {
+		private final List<E> list;
+		private final int k;
+		private long origin;
+		private final long fence;
+		private final boolean distinct;
+		private int[] pos;
+
+		CombinationSpliterator(List<E> list, int k, long origin, long fence, boolean distinct) {
+			this.list = list;
+			this.k = k;
+			this.origin = origin;
+			this.fence = fence;
+			this.distinct = distinct;
+		}
+
+		private int[] pos() {
+			if (pos == null) {
+				pos = new int[k];
+				unrank(list.size(), origin, pos);
+			}
+			return pos;
+		}
+
+		private Set<E> set(int[] p) {
+			HashSet<E> set = new HashSet<>();
+			for (int ipos : p)
+				set.add(list.get(ipos));
+			return set;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Set<E>> action) {
+			if (origin >= fence)
+				return false;
+			int[] p = pos();
+			action.accept(set(p));
+			origin += 1;
+			if (origin < fence)
+				next(list.size(), p);
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super Set<E>> action) {
+			if (origin >= fence)
+				return;
+			int[] p = pos();
+			while (true) {
+				action.accept(set(p));
+				origin += 1;
+				if (origin >= fence)
+					return;
+				next(list.size(), p);
+			}
+		}
+
+		@Override
+		public Spliterator<Set<E>> trySplit() {
+			long mid = origin + (fence - origin) / 2;
+			if (mid <= origin)
+				return null;
+			CombinationSpliterator<E> prefix = new CombinationSpliterator<>(list, k, origin, mid, distinct);
+			prefix.pos = pos;
+			pos = null;
+			origin = mid;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return fence - origin;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED | Spliterator.NONNULL
+					| Spliterator.IMMUTABLE | (distinct ? Spliterator.DISTINCT : 0);
+		}
+	}
 }
@@ -0,0 +1,201 @@
+/**
+ *
+ */
+package edu.cs.ai.math.combinatorics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Enumerates all k-subsets in revolving door order (Knuth, Algorithm R), a Gray
+ * code where two consecutive k-subsets differ by exactly one element swapped
+ * out and one element swapped in.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+public class KCombinationRevolvingDoor {
+
+	/***
+	 * Consumer for the k-subsets of a revolving door enumeration.
+	 */
+	@FunctionalInterface
+	public interface DoorConsumer {
+		/***
+		 * Visits a k-subset.
+		 *
+		 * @param combination the ascending positions of the current k-subset. The
+		 *                    array is reused and must not be modified or retained.
+		 * @param out         the position that left the k-subset, or {@code -1}
+		 *                    for the first k-subset
+		 * @param in          the position that entered the k-subset, or
+		 *                    {@code -1} for the first k-subset
+		 */
+		void accept(int[] combination, int out, int in);
+	}
+
+	public static void main(String[] args) {
+		forEach(5, 3, (c, out, in) -> System.out.println(Arrays.toString(c) + " -" + out + " +" + in));
+	}
+
+	/**
+	 * Returns a {@code Stream} of all k-subsets of the input in revolving door
+	 * order
+	 *
+	 * @author Kai Sauerwald.
+	 */
+	public static <E> Stream<Set<E>> stream(List<E> input, int k) {
+		Iterator<Set<E>> itr = iterator(input, k);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(itr, Spliterator.IMMUTABLE), false);
+	}
+
+	/***
+	 * Returns an iterator, that allows iteration of all k-subsets of the input in
+	 * revolving door order.
+	 *
+	 * @author Kai Sauerwald
+	 * @param input a list with the elements.
+	 */
+	public static <E> Iterator<Set<E>> iterator(List<E> input, int k) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		if (k < 0 || k > input.size())
+			throw new IllegalArgumentException();
+
+		return new Iterator<Set<E>>() {
+			private final Cursor cursor = new Cursor(input.size(), k);
+			private final List<E> list = Collections.unmodifiableList(input);
+			private boolean hasnext = true;
+
+			@Override
+			public boolean hasNext() {
+				return hasnext;
+			}
+
+			@Override
+			public Set<E> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+
+				HashSet<E> set = new HashSet<>();
+				for (int ipos : cursor.c)
+					set.add(list.get(ipos));
+
+				hasnext = cursor.advance();
+				return set;
+			}
+		};
+	}
+
+	/***
+	 * Hands all k-subsets of {@code 0..n-1} in revolving door order to
+	 * {@code eater}, together with the positions swapped out and in. Nothing is
+	 * allocated per k-subset.
+	 *
+	 * @param n     the size of the base
+	 * @param eater the consumer of the k-subsets
+	 */
+	public static void forEach(int n, int k, DoorConsumer eater) {
+		if (n < 0 || k < 0 || k > n)
+			throw new IllegalArgumentException();
+
+		Cursor cursor = new Cursor(n, k);
+		eater.accept(cursor.c, -1, -1);
+		while (cursor.advance())
+			eater.accept(cursor.c, cursor.out, cursor.in);
+	}
+
+	/***
+	 * The state of Algorithm R. Knuth's {@code c_j} is kept in {@code c[j-1]},
+	 * and the sentinel {@code c_{k+1} = n} is not stored.
+	 */
+	static final class Cursor {
+		final int n;
+		final int t;
+		final int[] c;
+		int out = -1;
+		int in = -1;
+
+		Cursor(int n, int k) {
+			this.n = n;
+			this.t = k;
+			// R1 [Initialize.]
+			this.c = new int[k];
+			for (int j = 1; j <= t; j++)
+				c[j - 1] = j - 1;
+		}
+
+		private int get(int j) {
+			return j > t ? n : c[j - 1];
+		}
+
+		/***
+		 * Moves to the next k-subset and records the swapped positions.
+		 *
+		 * @return false, if there is no next k-subset
+		 */
+		boolean advance() {
+			if (t == 0 || t == n)
+				return false;
+
+			// R3 [Easy case?]
+			if (t % 2 == 1) {
+				if (c[0] + 1 < get(2)) {
+					out = c[0];
+					c[0] += 1;
+					in = c[0];
+					return true;
+				}
+				return search(2, true);
+			}
+			if (c[0] > 0) {
+				out = c[0];
+				c[0] -= 1;
+				in = c[0];
+				return true;
+			}
+			return search(2, false);
+		}
+
+		/***
+		 * Runs the steps R4 and R5 alternately, starting at {@code j} with R4 if
+		 * {@code decrease} is set.
+		 */
+		private boolean search(int j, boolean decrease) {
+			while (j <= t) {
+				if (decrease) {
+					// R4 [Try to decrease c_j.] At this point c_j = c_{j-1} + 1.
+					if (c[j - 1] >= j) {
+						out = c[j - 1];
+						in = j - 2;
+						c[j - 1] = c[j - 2];
+						c[j - 2] = j - 2;
+						return true;
+					}
+				} else {
+					// R5 [Try to increase c_j.] At this point c_{j-1} = j - 2.
+					if (c[j - 1] + 1 < get(j + 1)) {
+						out = c[j - 2];
+						in = c[j - 1] + 1;
+						c[j - 2] = c[j - 1];
+						c[j - 1] += 1;
+						return true;
+					}
+				}
+				j += 1;
+				decrease = !decrease;
+			}
+			// R6 [Terminate.]
+			return false;
+		}
+	}
+}
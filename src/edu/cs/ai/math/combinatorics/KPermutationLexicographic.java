@@ -0,0 +1,350 @@
+/**
+ *
+ */
+package edu.cs.ai.math.combinatorics;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Enumerates all k-permutations of a list, i.e. the ordered selections of
+ * {@code k} out of {@code n} elements without repetition, in lexicographic
+ * order of their positions.
+ *
+ * A k-permutation is addressed by its rank in this order, which is written in
+ * the falling factorial radix {@code n, n-1, ..., n-k+1}: the {@code i}-th digit
+ * counts the unused positions below the {@code i}-th position. This allows to
+ * split the enumeration into independent rank ranges.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+public class KPermutationLexicographic {
+
+	public static void main(String[] args) {
+		stream(List.of(1, 2, 3, 4), 2).forEach(System.out::println);
+		System.out.println(stream(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12), 8).parallel().count());
+	}
+
+	/***
+	 * The number of k-permutations enumerated by {@link #iterator(List, int)},
+	 * i.e. the falling factorial {@code n (n-1) ... (n-k+1)} for
+	 * {@code n = input.size()}.
+	 *
+	 * @param input a list with the elements.
+	 */
+	public static <E> BigInteger count(List<E> input, int k) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		if (k < 0 || k > input.size())
+			throw new IllegalArgumentException();
+		return CombinatorialNumbers.fallingFactorial(input.size(), k);
+	}
+
+	/**
+	 * Returns a {@code Stream} of all k-permutations of the input list. If their
+	 * number fits into a {@code long}, the stream is sized and splits its rank
+	 * range in halves, so it is suited for parallel processing.
+	 *
+	 * @author Kai Sauerwald.
+	 */
+	public static <E> Stream<List<E>> stream(List<E> input, int k) {
+		Iterator<List<E>> itr = iterator(input, k);
+		long size;
+		try {
+			size = CombinatorialNumbers.fallingFactorialLong(input.size(), k);
+		} catch (ArithmeticException e) {
+			// Ordered like the sized stream, also when run in parallel
+			return StreamSupport.stream(
+					Spliterators.spliteratorUnknownSize(itr, Spliterator.ORDERED | Spliterator.IMMUTABLE), false);
+		}
+		return StreamSupport.stream(new KPermutationSpliterator<>(new ArrayList<>(input), k, 0L, size), false);
+	}
+
+	/***
+	 * Returns an iterator, that allows iteration of all k-permutations of the
+	 * input list in lexicographic order.
+	 *
+	 * @author Kai Sauerwald
+	 * @param input a list with the elements.
+	 */
+	public static <E> Iterator<List<E>> iterator(List<E> input, int k) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		if (k < 0 || k > input.size())
+			throw new IllegalArgumentException();
+		return iterator(input, new Cursor(input.size(), k));
+	}
+
+	/***
+	 * Returns an iterator, that starts at the k-permutation with the given rank
+	 * and visits all following k-permutations.
+	 *
+	 * @param input a list with the elements.
+	 * @param rank  the rank of the first k-permutation, see
+	 *              {@link #rank(int, int[])}
+	 */
+	public static <E> Iterator<List<E>> iterator(List<E> input, int k, long rank) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		if (k < 0 || k > input.size())
+			throw new IllegalArgumentException();
+		Cursor cursor = new Cursor(input.size(), k);
+		cursor.seed(rank);
+		return iterator(input, cursor);
+	}
+
+	private static <E> Iterator<List<E>> iterator(List<E> input, Cursor cursor) {
+		return new Iterator<List<E>>() {
+			private final List<E> list = new ArrayList<>(input);
+			private boolean hasnext = true;
+
+			@Override
+			public boolean hasNext() {
+				return hasnext;
+			}
+
+			@Override
+			public List<E> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+
+				List<E> result = PermutationsLexicographic.select(list, cursor.pos);
+				hasnext = cursor.advance();
+				return result;
+			}
+		};
+	}
+
+	/***
+	 * Hands all k-permutations of {@code 0..n-1} in lexicographic order to
+	 * {@code eater}. The array handed to the consumer is reused and must not be
+	 * modified or retained, so nothing is allocated per k-permutation.
+	 *
+	 * @param n     the size of the base
+	 * @param eater the consumer of the k-permutations
+	 */
+	public static void forEach(int n, int k, Consumer<int[]> eater) {
+		if (n < 0 || k < 0 || k > n)
+			throw new IllegalArgumentException();
+		Cursor cursor = new Cursor(n, k);
+		do {
+			eater.accept(cursor.pos);
+		} while (cursor.advance());
+	}
+
+	/***
+	 * Computes the lexicographic rank of a k-permutation of {@code 0..n-1} in the
+	 * falling factorial radix.
+	 *
+	 * @param n   the size of the base
+	 * @param pos the distinct positions of the k-permutation
+	 * @throws ArithmeticException if the number of k-permutations does not fit
+	 *                             into a {@code long}
+	 */
+	public static long rank(int n, int[] pos) {
+		int k = pos.length;
+		if (k > n)
+			throw new IllegalArgumentException();
+		CombinatorialNumbers.fallingFactorialLong(n, k);
+
+		boolean[] used = new boolean[n];
+		long rank = 0L;
+		for (int i = 0; i < k; i++) {
+			if (pos[i] < 0 || pos[i] >= n || used[pos[i]])
+				throw new IllegalArgumentException();
+			// The i-th digit counts the unused positions below pos[i]
+			int smaller = 0;
+			for (int j = 0; j < pos[i]; j++)
+				if (!used[j])
+					smaller += 1;
+			used[pos[i]] = true;
+			rank = rank * (n - i) + smaller;
+		}
+		return rank;
+	}
+
+	/***
+	 * Writes the k-permutation of {@code 0..n-1} with the given rank into
+	 * {@code pos}, where {@code k = pos.length}.
+	 *
+	 * @param n    the size of the base
+	 * @param rank the rank, between {@code 0} and {@code n!/(n-k)!-1}
+	 * @param pos  the array receiving the positions
+	 * @throws ArithmeticException if the number of k-permutations does not fit
+	 *                             into a {@code long}
+	 */
+	public static void unrank(int n, long rank, int[] pos) {
+		int k = pos.length;
+		if (k > n || rank < 0L || rank >= CombinatorialNumbers.fallingFactorialLong(n, k))
+			throw new IllegalArgumentException();
+
+		// Decode the digits from the least significant one
+		for (int i = k - 1; i >= 0; i--) {
+			pos[i] = (int) (rank % (n - i));
+			rank /= (n - i);
+		}
+		// Replace every digit by the unused position of that order
+		boolean[] used = new boolean[n];
+		for (int i = 0; i < k; i++) {
+			int p = -1;
+			int smaller = pos[i];
+			while (smaller >= 0) {
+				p++;
+				if (!used[p])
+					smaller--;
+			}
+			pos[i] = p;
+			used[p] = true;
+		}
+	}
+
+	/***
+	 * A k-permutation of {@code 0..n-1}, together with the set of its positions,
+	 * which is moved to its lexicographic successor in place.
+	 */
+	static final class Cursor {
+		final int n;
+		final int[] pos;
+		private final boolean[] used;
+
+		Cursor(int n, int k) {
+			this.n = n;
+			this.pos = new int[k];
+			this.used = new boolean[n];
+			for (int i = 0; i < k; i++) {
+				pos[i] = i;
+				used[i] = true;
+			}
+		}
+
+		/***
+		 * Moves to the k-permutation with the given rank.
+		 */
+		void seed(long rank) {
+			unrank(n, rank, pos);
+			Arrays.fill(used, false);
+			for (int p : pos)
+				used[p] = true;
+		}
+
+		/***
+		 * Moves to the lexicographically next k-permutation. The rightmost position
+		 * that can be increased to an unused one is increased, and the following
+		 * positions are filled with the smallest unused ones.
+		 *
+		 * @return false, if there is no next k-permutation. In this case the
+		 *         k-permutation is left unchanged.
+		 */
+		boolean advance() {
+			int k = pos.length;
+			for (int i = k - 1; i >= 0; i--) {
+				used[pos[i]] = false;
+				int v = pos[i] + 1;
+				while (v < n && used[v])
+					v++;
+				if (v < n) {
+					pos[i] = v;
+					used[v] = true;
+					int w = 0;
+					for (int j = i + 1; j < k; j++) {
+						while (used[w])
+							w++;
+						pos[j] = w;
+						used[w] = true;
+					}
+					return true;
+				}
+			}
+			for (int p : pos)
+				used[p] = true;
+			return false;
+		}
+	}
+
+	/***
+	 * A spliterator over the rank range {@code [origin, fence)}, which is split
+	 * in halves. The cursor of a range is seeded by unranking its origin when the
+	 * range is traversed first.
+	 */
+	static final class KPermutationSpliterator<E> implements Spliterator<List<E>> {
+		private final List<E> list;
+		private final int k;
+		private long origin;
+		private final long fence;
+		private Cursor cursor;
+
+		KPermutationSpliterator(List<E> list, int k, long origin, long fence) {
+			this.list = list;
+			this.k = k;
+			this.origin = origin;
+			this.fence = fence;
+		}
+
+		private Cursor cursor() {
+			if (cursor == null) {
+				cursor = new Cursor(list.size(), k);
+				cursor.seed(origin);
+			}
+			return cursor;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super List<E>> action) {
+			if (origin >= fence)
+				return false;
+			Cursor c = cursor();
+			action.accept(PermutationsLexicographic.select(list, c.pos));
+			origin += 1;
+			if (origin < fence)
+				c.advance();
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super List<E>> action) {
+			if (origin >= fence)
+				return;
+			Cursor c = cursor();
+			while (true) {
+				action.accept(PermutationsLexicographic.select(list, c.pos));
+				origin += 1;
+				if (origin >= fence)
+					return;
+				c.advance();
+			}
+		}
+
+		@Override
+		public Spliterator<List<E>> trySplit() {
+			long mid = origin + (fence - origin) / 2;
+			if (mid <= origin)
+				return null;
+			KPermutationSpliterator<E> prefix = new KPermutationSpliterator<>(list, k, origin, mid);
+			prefix.cursor = cursor;
+			cursor = null;
+			origin = mid;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return fence - origin;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED | Spliterator.NONNULL
+					| Spliterator.IMMUTABLE;
+		}
+	}
+}
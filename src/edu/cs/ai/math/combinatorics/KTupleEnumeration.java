@@ -1,5 +1,7 @@
 package edu.cs.ai.math.combinatorics;
 
+import java.math.BigInteger;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
@@ -7,6 +9,11 @@ import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -18,6 +25,35 @@ import edu.cs.ai.math.settheory.Tuple;
  */
 public class KTupleEnumeration {
 
+	/***
+	 * Consumer for the tuples of a Gray code enumeration.
+	 */
+	@FunctionalInterface
+	public interface CoordinateConsumer<E> {
+		/***
+		 * Visits a tuple.
+		 * 
+		 * @param tuple    a read-only view of the current tuple, which changes with
+		 *                 the enumeration and must not be retained
+		 * @param position the only position that changed, or {@code -1} for the
+		 *                 first tuple
+		 */
+		void accept(List<E> tuple, int position);
+	}
+
+	/***
+	 * A test on the prefixes of tuples of digits. It has to be prefix-closed: if
+	 * it fails for a prefix, it fails for all longer ones.
+	 */
+	@FunctionalInterface
+	public interface PrefixPredicate {
+		/***
+		 * Tests the prefix {@code digits[0..length-1]}, where the entries beyond
+		 * are undefined.
+		 */
+		boolean test(int[] digits, int length);
+	}
+
 	public static void main(String[] args) {
 		ArrayList<Integer> fuenfzig = new ArrayList<>(50);
 		for (int i = 1; i <= 10; i++) {
@@ -30,14 +66,69 @@ public class KTupleEnumeration {
 			System.out.println(itr.next());
 	}
 
+	/***
+	 * The number of {@code k}-tuples enumerated by {@link #iterator(List, int)},
+	 * i.e. {@code input.size()^k}.
+	 * 
+	 * @param input a list with the elements.
+	 * @param k     the arity of the tuple
+	 */
+	public static <E> BigInteger count(List<E> input, int k) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		if (k < 0)
+			throw new IllegalArgumentException();
+		return CombinatorialNumbers.power(input.size(), k);
+	}
+
 	/**
-	 * Returns a {@code Stream} of all Subsets of the input collection
+	 * Returns a {@code Stream} of all k-tuples over the input. If their number
+	 * fits into a {@code long}, the stream is sized and splits its rank range in
+	 * halves, so it is suited for parallel processing.
 	 * 
 	 * @author Kai Sauerwald.
 	 */
 	public static <E> Stream<Tuple<E>> stream(List<E> input, int k) {
-		Iterator<Tuple<E>> itr = iterator(input, k);
-		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(itr, Spliterator.IMMUTABLE), false);
+		if (input == null)
+			throw new IllegalArgumentException();
+		if (k < 0)
+			throw new IllegalArgumentException();
+		List<List<E>> domains = Collections.nCopies(k, new ArrayList<>(input));
+		long size;
+		try {
+			size = CombinatorialNumbers.powerLong(input.size(), k);
+		} catch (ArithmeticException e) {
+			// Ordered like the sized stream, also when run in parallel
+			Iterator<Tuple<E>> itr = iterator(input, k);
+			return StreamSupport.stream(
+					Spliterators.spliteratorUnknownSize(itr, Spliterator.ORDERED | Spliterator.IMMUTABLE), false);
+		}
+		return StreamSupport.stream(new TupleSpliterator<>(domains, 0L, size), false);
+	}
+
+	/**
+	 * Returns a sized {@code Stream} of the k-tuples over the input with a rank
+	 * in {@code [from, to)}. The first k-tuple is found by decoding {@code from},
+	 * so skipping takes time linear in {@code k}.
+	 * 
+	 * @param input a list with the elements.
+	 * @param k     the arity of the tuple
+	 * @param from  the rank of the first k-tuple, see {@link #rank(int, int[])}
+	 * @param to    the rank after the last k-tuple
+	 */
+	public static <E> Stream<Tuple<E>> stream(List<E> input, int k, long from, long to) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		if (k < 0 || from < 0L || from > to)
+			throw new IllegalArgumentException();
+		try {
+			if (to > CombinatorialNumbers.powerLong(input.size(), k))
+				throw new IllegalArgumentException();
+		} catch (ArithmeticException e) {
+			// There are more k-tuples than any long, so every range is valid
+		}
+		List<List<E>> domains = Collections.nCopies(k, new ArrayList<>(input));
+		return StreamSupport.stream(new TupleSpliterator<>(domains, from, to), false);
 	}
 
 	/***
@@ -79,11 +170,62 @@ public class KTupleEnumeration {
 		for (int i = 0; i < k; i++) {
 			startpos[i] = 0;
 		}
+		return iterator(input, startpos);
+	}
+
+	/***
+	 * Returns an iterator, that starts at the k-tuple with the given rank and
+	 * visits all following k-tuples.
+	 * 
+	 * @param input a list with the elements.
+	 * @param k     the arity of the tuple
+	 * @param rank  the rank of the first k-tuple, see {@link #rank(int, int[])}
+	 */
+	public static <E> Iterator<Tuple<E>> iterator(List<E> input, int k, long rank) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		if (k < 0)
+			throw new IllegalArgumentException();
+		if (k == 0) {
+			if (rank != 0L)
+				throw new IllegalArgumentException();
+			return iterator(input, k);
+		}
 
+		int[] startpos = new int[k];
+		unrank(input.size(), rank, startpos);
+		return iterator(input, startpos);
+	}
+
+	/***
+	 * Returns an iterator, that starts at the k-tuple with the given rank and
+	 * visits all following k-tuples, for any number of k-tuples.
+	 * 
+	 * @param input a list with the elements.
+	 * @param k     the arity of the tuple
+	 * @param rank  the rank of the first k-tuple, see {@link #bigRank(int, int[])}
+	 */
+	public static <E> Iterator<Tuple<E>> iterator(List<E> input, int k, BigInteger rank) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		if (k < 0)
+			throw new IllegalArgumentException();
+		if (k == 0) {
+			if (rank.signum() != 0)
+				throw new IllegalArgumentException();
+			return iterator(input, k);
+		}
+
+		int[] startpos = new int[k];
+		unrank(input.size(), rank, startpos);
+		return iterator(input, startpos);
+	}
+
+	private static <E> Iterator<Tuple<E>> iterator(List<E> input, int[] startpos) {
 		// This iterator implements a loop
 		return new Iterator<Tuple<E>>() {
-			private int ik = k;
-			private boolean hasnext = true;
+			private int ik = startpos.length;
+			private boolean hasnext = !input.isEmpty();
 			private int[] pos = startpos;
 			private List<E> list = Collections.unmodifiableList(input);
 
@@ -98,35 +240,605 @@ public class KTupleEnumeration {
 					throw new NoSuchElementException();
 
 				List<E> lres = new ArrayList<E>(ik);
-				for (int i = 0; i < startpos.length; i++) {
-					int j = startpos[i];
+				for (int i = 0; i < pos.length; i++) {
+					int j = pos[i];
 					lres.add(list.get(j));
 				}
 				Tuple<E> result = new Tuple<>(lres);
 
-				boolean done = false;
-				int i = ik - 1;
-				int imax = list.size() - 1;
-				while (!done) {
-					if (pos[i] == imax) {
-						if (i == 0) {
-							done = true;
-							hasnext = false;
-						} else {
-							i -= 1;
-						}
-						continue;
-					}
-
-					pos[i] = pos[i] + 1;
-					for (int j = 1; i + j < ik; j++) {
-						pos[i + j] = 0;
-					}
-					done = true;
-				}
+				hasnext = KTupleEnumeration.next(list.size(), pos);
+				return result;
+			}
+		};
+	}
 
+	/***
+	 * The number of tuples enumerated by {@link #iterator(List)}, i.e. the
+	 * product of the sizes of the domains.
+	 * 
+	 * @param domains the values of every position
+	 */
+	public static <E> BigInteger count(List<? extends List<E>> domains) {
+		if (domains == null)
+			throw new IllegalArgumentException();
+		BigInteger result = BigInteger.ONE;
+		for (List<E> domain : domains)
+			result = result.multiply(BigInteger.valueOf(domain.size()));
+		return result;
+	}
+
+	/**
+	 * Returns a {@code Stream} of all tuples over the domains, see
+	 * {@link #iterator(List)}.
+	 * 
+	 * @author Kai Sauerwald.
+	 */
+	public static <E> Stream<Tuple<E>> stream(List<? extends List<E>> domains) {
+		Odometer odometer = odometer(domains, false);
+		long size;
+		try {
+			size = odometer.size();
+		} catch (ArithmeticException e) {
+			Iterator<Tuple<E>> itr = iterator(domains);
+			return StreamSupport.stream(
+					Spliterators.spliteratorUnknownSize(itr, Spliterator.ORDERED | Spliterator.IMMUTABLE), false);
+		}
+		return StreamSupport.stream(new TupleSpliterator<>(new ArrayList<>(domains), 0L, size), false);
+	}
+
+	/***
+	 * Returns an iterator over all tuples, whose {@code i}-th entry is taken from
+	 * the {@code i}-th domain, in lexicographic order. The positions are driven
+	 * by a mixed-radix {@link Odometer}.
+	 * 
+	 * @param domains the values of every position
+	 */
+	public static <E> Iterator<Tuple<E>> iterator(List<? extends List<E>> domains) {
+		return iterator(domains, false);
+	}
+
+	/***
+	 * Returns an iterator over the same tuples as {@link #iterator(List)} in
+	 * reflected Gray code order, where consecutive tuples differ in exactly one
+	 * position. See {@link #forEachGray(List, CoordinateConsumer)} to learn the
+	 * changed position.
+	 * 
+	 * @param domains the values of every position
+	 */
+	public static <E> Iterator<Tuple<E>> grayIterator(List<? extends List<E>> domains) {
+		return iterator(domains, true);
+	}
+
+	private static <E> Iterator<Tuple<E>> iterator(List<? extends List<E>> domains, boolean reflected) {
+		Odometer odometer = odometer(domains, reflected);
+
+		return new Iterator<Tuple<E>>() {
+			private final List<E> view = odometer.domainView(new ArrayList<>(domains));
+
+			@Override
+			public boolean hasNext() {
+				return odometer.hasCurrent();
+			}
+
+			@Override
+			public Tuple<E> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+
+				Tuple<E> result = view.isEmpty() ? new Tuple<>() : new Tuple<>(new ArrayList<>(view));
+				odometer.advance();
 				return result;
 			}
 		};
 	}
+
+	/***
+	 * Hands all tuples over the domains in reflected Gray code order to
+	 * {@code eater}, together with the position that changed. Every step takes
+	 * constant time and allocates nothing, so a consumer can update its
+	 * evaluation incrementally.
+	 * 
+	 * @param domains the values of every position
+	 * @param eater   the consumer of the tuples
+	 */
+	public static <E> void forEachGray(List<? extends List<E>> domains, CoordinateConsumer<E> eater) {
+		Odometer odometer = odometer(domains, true);
+		if (!odometer.hasCurrent())
+			return;
+		List<E> view = odometer.domainView(new ArrayList<>(domains));
+		eater.accept(view, -1);
+		while (odometer.advance())
+			eater.accept(view, odometer.changed());
+	}
+
+	private static <E> Odometer odometer(List<? extends List<E>> domains, boolean reflected) {
+		if (domains == null)
+			throw new IllegalArgumentException();
+		int[] radices = new int[domains.size()];
+		for (int i = 0; i < radices.length; i++)
+			radices[i] = domains.get(i).size();
+		return reflected ? Odometer.reflected(radices) : new Odometer(radices);
+	}
+
+	/***
+	 * Hands all k-tuples over the input to {@code eater}, whose prefixes all
+	 * satisfy {@code prefix}, see {@link #search(List, Predicate, Consumer, boolean)}.
+	 * 
+	 * @param input    a list with the elements.
+	 * @param k        the arity of the tuple
+	 * @param prefix   the prefix-closed test
+	 * @param eater    the consumer of the k-tuples
+	 * @param parallel whether the top levels of the search are split among the
+	 *                 common pool
+	 */
+	public static <E> void search(List<E> input, int k, Predicate<? super List<E>> prefix,
+			Consumer<? super List<E>> eater, boolean parallel) {
+		if (input == null || k < 0)
+			throw new IllegalArgumentException();
+		search(Collections.nCopies(k, new ArrayList<>(input)), prefix, eater, parallel);
+	}
+
+	/***
+	 * Hands all tuples over the domains to {@code eater}, whose prefixes all
+	 * satisfy {@code prefix}. The tuples are searched by backtracking: the test is
+	 * called for every non-empty prefix, whose shorter prefixes passed, and a
+	 * failing prefix cuts off all its completions. Hence the work is proportional
+	 * to the number of passing prefixes. The test and the consumer are given
+	 * read-only views, which must not be retained.
+	 * 
+	 * In parallel mode, the subtrees below the top levels are forked as tasks into
+	 * the common pool, so the tuples arrive in no particular order and from
+	 * several threads.
+	 * 
+	 * @param domains  the values of every position
+	 * @param prefix   the prefix-closed test
+	 * @param eater    the consumer of the tuples
+	 * @param parallel whether the top levels of the search are split among the
+	 *                 common pool
+	 */
+	public static <E> void search(List<? extends List<E>> domains, Predicate<? super List<E>> prefix,
+			Consumer<? super List<E>> eater, boolean parallel) {
+		if (domains == null || prefix == null || eater == null)
+			throw new IllegalArgumentException();
+		List<? extends List<E>> copy = new ArrayList<>(domains);
+		int[] radices = new int[copy.size()];
+		for (int i = 0; i < radices.length; i++)
+			radices[i] = copy.get(i).size();
+		search(radices, (digits, length) -> prefix.test(new DigitView<>(copy, digits, length)),
+				digits -> eater.accept(new DigitView<>(copy, digits, digits.length)), parallel);
+	}
+
+	/***
+	 * Hands all tuples of digits below {@code radices} to {@code eater}, whose
+	 * prefixes all satisfy {@code prefix}, see
+	 * {@link #search(List, Predicate, Consumer, boolean)}. The array handed to the
+	 * consumer is reused and must not be modified or retained.
+	 * 
+	 * @param radices  the number of values of every position
+	 * @param prefix   the prefix-closed test
+	 * @param eater    the consumer of the tuples
+	 * @param parallel whether the top levels of the search are split among the
+	 *                 common pool
+	 */
+	public static void search(int[] radices, PrefixPredicate prefix, Consumer<int[]> eater, boolean parallel) {
+		if (radices == null || prefix == null || eater == null)
+			throw new IllegalArgumentException();
+		for (int radix : radices)
+			if (radix < 0)
+				throw new IllegalArgumentException();
+
+		SearchTask task = new SearchTask(radices.clone(), prefix, eater, new int[radices.length], 0,
+				parallel ? splitDepth(radices) : 0);
+		if (parallel)
+			ForkJoinPool.commonPool().invoke(task);
+		else
+			task.compute();
+	}
+
+	/***
+	 * The number of top levels, which are forked in parallel mode: enough to give
+	 * every worker of the common pool several subtrees, but none at the leaves.
+	 */
+	private static int splitDepth(int[] radices) {
+		long target = 8L * ForkJoinPool.getCommonPoolParallelism();
+		long width = 1L;
+		int depth = 0;
+		while (depth < radices.length - 1 && width < target) {
+			width *= Math.max(radices[depth], 1);
+			depth += 1;
+		}
+		return depth;
+	}
+
+	/***
+	 * Searches the completions of an accepted prefix of length {@code depth}.
+	 * Prefixes shorter than {@code split} are extended by forking one task per
+	 * value, longer ones by a sequential backtracking over a single array.
+	 */
+	@SuppressWarnings("serial")
+	private static final class SearchTask extends RecursiveAction {
+		private final int[] radices;
+		private final PrefixPredicate prefix;
+		private final Consumer<int[]> eater;
+		private final int[] digits;
+		private final int depth;
+		private final int split;
+
+		SearchTask(int[] radices, PrefixPredicate prefix, Consumer<int[]> eater, int[] digits, int depth,
+				int split) {
+			this.radices = radices;
+			this.prefix = prefix;
+			this.eater = eater;
+			this.digits = digits;
+			this.depth = depth;
+			this.split = split;
+		}
+
+		@Override
+		protected void compute() {
+			int k = radices.length;
+			if (depth == k) {
+				eater.accept(digits);
+				return;
+			}
+
+			if (depth < split) {
+				List<SearchTask> tasks = new ArrayList<>(radices[depth]);
+				for (int v = 0; v < radices[depth]; v++) {
+					int[] child = digits.clone();
+					child[depth] = v;
+					if (prefix.test(child, depth + 1))
+						tasks.add(new SearchTask(radices, prefix, eater, child, depth + 1, split));
+				}
+				invokeAll(tasks);
+				return;
+			}
+
+			int d = depth;
+			digits[d] = -1;
+			while (d >= depth) {
+				digits[d] += 1;
+				if (digits[d] >= radices[d]) {
+					// All values of position d are done, go back
+					d -= 1;
+					continue;
+				}
+				if (!prefix.test(digits, d + 1))
+					continue;
+				if (d + 1 == k)
+					eater.accept(digits);
+				else {
+					d += 1;
+					digits[d] = -1;
+				}
+			}
+		}
+	}
+
+	/***
+	 * A read-only view of the prefix {@code digits[0..length-1]}, where every
+	 * digit selects an entry of its domain.
+	 */
+	private static final class DigitView<E> extends AbstractList<E> {
+		private final List<? extends List<E>> domains;
+		private final int[] digits;
+		private final int length;
+
+		DigitView(List<? extends List<E>> domains, int[] digits, int length) {
+			this.domains = domains;
+			this.digits = digits;
+			this.length = length;
+		}
+
+		@Override
+		public E get(int index) {
+			if (index < 0 || index >= length)
+				throw new IndexOutOfBoundsException();
+			return domains.get(index).get(digits[index]);
+		}
+
+		@Override
+		public int size() {
+			return length;
+		}
+	}
+
+	/***
+	 * Returns an iterator over the same k-tuples as {@link #iterator(List, int)},
+	 * which returns the same read-only tuple for every k-tuple and updates it in
+	 * place. Hence no object is allocated per k-tuple. Use
+	 * {@link TupleView#snapshot()} to retain a k-tuple.
+	 * 
+	 * @param input a list with the elements.
+	 * @param k     the arity of the tuple
+	 */
+	public static <E> Iterator<TupleView<E>> reusingIterator(List<E> input, int k) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		if (k < 0)
+			throw new IllegalArgumentException();
+
+		return new Iterator<TupleView<E>>() {
+			private boolean hasnext = k == 0 || !input.isEmpty();
+			private final int[] pos = new int[k];
+			private final TupleView<E> view = new TupleView<>(k);
+			private final List<E> list = Collections.unmodifiableList(input);
+
+			@Override
+			public boolean hasNext() {
+				return hasnext;
+			}
+
+			@Override
+			public TupleView<E> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+
+				for (int i = 0; i < pos.length; i++)
+					view.set(i, list.get(pos[i]));
+				hasnext = KTupleEnumeration.next(list.size(), pos);
+				return view;
+			}
+		};
+	}
+
+	/***
+	 * Moves the positions {@code pos} to the next k-tuple over {@code 0..n-1},
+	 * where {@code k = pos.length}.
+	 * 
+	 * @return false, if {@code pos} was the last k-tuple. In this case
+	 *         {@code pos} is set to the first k-tuple.
+	 */
+	public static boolean next(int n, int[] pos) {
+		for (int i = pos.length - 1; i >= 0; i--) {
+			if (pos[i] < n - 1) {
+				pos[i] = pos[i] + 1;
+				return true;
+			}
+			pos[i] = 0;
+		}
+		return false;
+	}
+
+	/***
+	 * Computes the rank of a k-tuple over {@code 0..n-1} in the order of
+	 * {@link #iterator(List, int)}, i.e. the value of the positions as mixed radix
+	 * number with the base {@code n}.
+	 * 
+	 * @param n   the number of elements
+	 * @param pos the positions of the k-tuple
+	 * @throws ArithmeticException if the rank does not fit into a {@code long},
+	 *                             see {@link #bigRank(int, int[])}
+	 */
+	public static long rank(int n, int[] pos) {
+		long rank = 0L;
+		for (int i = 0; i < pos.length; i++) {
+			if (pos[i] < 0 || pos[i] >= n)
+				throw new IllegalArgumentException();
+			rank = Math.addExact(Math.multiplyExact(rank, n), pos[i]);
+		}
+		return rank;
+	}
+
+	/***
+	 * Writes the k-tuple over {@code 0..n-1} with the given rank into
+	 * {@code pos}, where {@code k = pos.length}. If the number of k-tuples does
+	 * not fit into a {@code long}, every non-negative rank is valid.
+	 * 
+	 * @param n    the number of elements
+	 * @param rank the rank, between {@code 0} and {@code n^k-1}
+	 * @param pos  the array receiving the positions
+	 */
+	public static void unrank(int n, long rank, int[] pos) {
+		if (rank < 0L)
+			throw new IllegalArgumentException();
+		try {
+			if (rank >= CombinatorialNumbers.powerLong(n, pos.length))
+				throw new IllegalArgumentException();
+		} catch (ArithmeticException e) {
+			// There are more k-tuples than any long, so every rank is valid
+		}
+		for (int i = pos.length - 1; i >= 0; i--) {
+			pos[i] = (int) (rank % n);
+			rank /= n;
+		}
+	}
+
+	/***
+	 * Computes the rank of a k-tuple over {@code 0..n-1} like
+	 * {@link #rank(int, int[])}, for any number of k-tuples.
+	 * 
+	 * @param n   the number of elements
+	 * @param pos the positions of the k-tuple
+	 */
+	public static BigInteger bigRank(int n, int[] pos) {
+		BigInteger base = BigInteger.valueOf(n);
+		BigInteger rank = BigInteger.ZERO;
+		for (int i = 0; i < pos.length; i++) {
+			if (pos[i] < 0 || pos[i] >= n)
+				throw new IllegalArgumentException();
+			rank = rank.multiply(base).add(BigInteger.valueOf(pos[i]));
+		}
+		return rank;
+	}
+
+	/***
+	 * Writes the k-tuple over {@code 0..n-1} with the given rank into
+	 * {@code pos} like {@link #unrank(int, long, int[])}, for any number of
+	 * k-tuples.
+	 * 
+	 * @param n    the number of elements
+	 * @param rank the rank, between {@code 0} and {@code n^k-1}
+	 * @param pos  the array receiving the positions
+	 */
+	public static void unrank(int n, BigInteger rank, int[] pos) {
+		if (rank.signum() < 0 || rank.compareTo(CombinatorialNumbers.power(n, pos.length)) >= 0)
+			throw new IllegalArgumentException();
+		BigInteger base = BigInteger.valueOf(n);
+		for (int i = pos.length - 1; i >= 0; i--) {
+			BigInteger[] qr = rank.divideAndRemainder(base);
+			pos[i] = qr[1].intValue();
+			rank = qr[0];
+		}
+	}
+
+	/***
+	 * Computes the rank of a k-tuple over the input.
+	 * 
+	 * @param input a list with the elements.
+	 * @param tuple a tuple over the elements
+	 */
+	public static <E> long rank(List<E> input, Tuple<E> tuple) {
+		int[] pos = new int[tuple.getArity()];
+		for (int i = 0; i < pos.length; i++) {
+			pos[i] = input.indexOf(tuple.getIth(i));
+			if (pos[i] < 0)
+				throw new IllegalArgumentException();
+		}
+		return rank(input.size(), pos);
+	}
+
+	/***
+	 * Returns the k-tuple over the input with the given rank.
+	 * 
+	 * @param input a list with the elements.
+	 * @param k     the arity of the tuple
+	 * @param rank  the rank, between {@code 0} and {@code n^k-1}
+	 */
+	public static <E> Tuple<E> unrank(List<E> input, int k, long rank) {
+		if (k < 0)
+			throw new IllegalArgumentException();
+		if (k == 0) {
+			if (rank != 0L)
+				throw new IllegalArgumentException();
+			return new Tuple<>();
+		}
+		int[] pos = new int[k];
+		unrank(input.size(), rank, pos);
+		List<E> lres = new ArrayList<E>(k);
+		for (int i = 0; i < k; i++)
+			lres.add(input.get(pos[i]));
+		return new Tuple<>(lres);
+	}
+
+	/***
+	 * Writes a uniform random k-tuple over {@code 0..n-1} into {@code pos}, where
+	 * {@code k = pos.length}.
+	 * 
+	 * @param n      the number of elements
+	 * @param pos    the array receiving the positions
+	 * @param random the source of randomness
+	 */
+	public static void sample(int n, int[] pos, SplittableRandom random) {
+		if (n <= 0 && pos.length > 0)
+			throw new IllegalArgumentException();
+		for (int i = 0; i < pos.length; i++)
+			pos[i] = random.nextInt(n);
+	}
+
+	/***
+	 * Returns a uniform random k-tuple over the input.
+	 * 
+	 * @param input  a list with the elements.
+	 * @param k      the arity of the tuple
+	 * @param random the source of randomness
+	 */
+	public static <E> Tuple<E> sample(List<E> input, int k, SplittableRandom random) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		if (k < 0)
+			throw new IllegalArgumentException();
+		if (k == 0)
+			return new Tuple<>();
+		int[] pos = new int[k];
+		sample(input.size(), pos, random);
+		List<E> lres = new ArrayList<E>(k);
+		for (int i = 0; i < k; i++)
+			lres.add(input.get(pos[i]));
+		return new Tuple<>(lres);
+	}
+
+	/***
+	 * A spliterator over the rank range {@code [origin, fence)} of the tuples over
+	 * {@code domains}, which is split in halves. The odometer of a range is seeded
+	 * by decoding its origin in the mixed radix of the domains when the range is
+	 * traversed first.
+	 */
+	static final class TupleSpliterator<E> implements Spliterator<Tuple<E>> {
+		private final List<? extends List<E>> domains;
+		private long origin;
+		private final long fence;
+		private Odometer odometer;
+		private List<E> view;
+
+		TupleSpliterator(List<? extends List<E>> domains, long origin, long fence) {
+			this.domains = domains;
+			this.origin = origin;
+			this.fence = fence;
+		}
+
+		private Odometer odometer() {
+			if (odometer == null) {
+				odometer = KTupleEnumeration.odometer(domains, false);
+				odometer.setRank(origin);
+				view = odometer.domainView(domains);
+			}
+			return odometer;
+		}
+
+		private Tuple<E> tuple() {
+			return view.isEmpty() ? new Tuple<>() : new Tuple<>(new ArrayList<>(view));
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super Tuple<E>> action) {
+			if (origin >= fence)
+				return false;
+			Odometer o = odometer();
+			action.accept(tuple());
+			origin += 1;
+			if (origin < fence)
+				o.advance();
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super Tuple<E>> action) {
+			if (origin >= fence)
+				return;
+			Odometer o = odometer();
+			while (true) {
+				action.accept(tuple());
+				origin += 1;
+				if (origin >= fence)
+					return;
+				o.advance();
+			}
+		}
+
+		@Override
+		public Spliterator<Tuple<E>> trySplit() {
+			long mid = origin + (fence - origin) / 2;
+			if (mid <= origin)
+				return null;
+			TupleSpliterator<E> prefix = new TupleSpliterator<>(domains, origin, mid);
+			prefix.odometer = odometer;
+			prefix.view = view;
+			odometer = null;
+			view = null;
+			origin = mid;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return fence - origin;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED | Spliterator.NONNULL
+					| Spliterator.IMMUTABLE;
+		}
+	}
 }
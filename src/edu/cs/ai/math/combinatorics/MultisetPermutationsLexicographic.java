@@ -0,0 +1,145 @@
+/**
+ *
+ */
+package edu.cs.ai.math.combinatorics;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Enumerates the distinct permutations of a list with repeated elements. Equal
+ * elements are numbered by their first occurrence, and the arrangements of these
+ * numbers are visited in lexicographic order by Algorithm L (Knuth), see
+ * {@link PermutationsLexicographic#next(int[])}. Every distinct arrangement is
+ * visited exactly once, so no deduplication is needed.
+ *
+ * The order is lexicographic by the index of first occurrence, not by the
+ * values of the elements. For example, the permutations of
+ * {@code [3, 1, 3, 2, 1, 3]} start with {@code [3, 3, 3, 1, 1, 2]} and end with
+ * {@code [2, 1, 1, 3, 3, 3]}. Only {@link #forEach(int[], Consumer)} orders by
+ * value.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+public class MultisetPermutationsLexicographic {
+
+	public static void main(String[] args) {
+		stream(List.of("a", "b", "a", "c")).forEach(System.out::println);
+		System.out.println(count(List.of("a", "b", "a", "c")));
+	}
+
+	/***
+	 * The number of distinct permutations of the input, i.e. the multinomial
+	 * coefficient {@code n! / (m_1! ... m_r!)} for the multiplicities
+	 * {@code m_i} of the distinct elements.
+	 *
+	 * @param input a list with the elements.
+	 */
+	public static <E> BigInteger count(List<E> input) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		int[] multiset = classes(input, new ArrayList<>());
+		BigInteger result = CombinatorialNumbers.factorial(multiset.length);
+		for (int i = 0, j; i < multiset.length; i = j) {
+			j = i;
+			while (j < multiset.length && multiset[j] == multiset[i])
+				j++;
+			result = result.divide(CombinatorialNumbers.factorial(j - i));
+		}
+		return result;
+	}
+
+	/**
+	 * Returns a {@code Stream} of all distinct permutations of the input list.
+	 *
+	 * @author Kai Sauerwald.
+	 */
+	public static <E> Stream<List<E>> stream(List<E> input) {
+		Iterator<List<E>> itr = iterator(input);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(itr, Spliterator.IMMUTABLE), false);
+	}
+
+	/***
+	 * Returns an iterator, that allows iteration of all distinct permutations of
+	 * the input list in lexicographic order by the index of first occurrence.
+	 *
+	 * @author Kai Sauerwald
+	 * @param input a list with the elements.
+	 */
+	public static <E> Iterator<List<E>> iterator(List<E> input) {
+		if (input == null)
+			throw new IllegalArgumentException();
+
+		List<E> representatives = new ArrayList<>();
+		int[] start = classes(input, representatives);
+
+		return new Iterator<List<E>>() {
+			private final int[] permutation = start;
+			private boolean hasnext = true;
+
+			@Override
+			public boolean hasNext() {
+				return hasnext;
+			}
+
+			@Override
+			public List<E> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+
+				List<E> result = PermutationsLexicographic.select(representatives, permutation);
+				hasnext = PermutationsLexicographic.next(permutation);
+				return result;
+			}
+		};
+	}
+
+	/***
+	 * Hands all distinct arrangements of {@code multiset} to {@code eater} in
+	 * lexicographic order. The array handed to the consumer is reused and must
+	 * not be modified or retained.
+	 *
+	 * @param multiset the values, in any order. The array is not modified.
+	 * @param eater    the consumer of the arrangements
+	 */
+	public static void forEach(int[] multiset, Consumer<int[]> eater) {
+		int[] a = multiset.clone();
+		Arrays.sort(a);
+		do {
+			eater.accept(a);
+		} while (PermutationsLexicographic.next(a));
+	}
+
+	/***
+	 * Numbers the distinct elements of the input by their first occurrence, adds
+	 * them to {@code representatives} and returns the sorted numbers of all
+	 * elements.
+	 */
+	private static <E> int[] classes(List<E> input, List<E> representatives) {
+		HashMap<E, Integer> index = new HashMap<>();
+		int[] multiset = new int[input.size()];
+		for (int i = 0; i < multiset.length; i++) {
+			E e = input.get(i);
+			Integer c = index.get(e);
+			if (c == null) {
+				c = representatives.size();
+				index.put(e, c);
+				representatives.add(e);
+			}
+			multiset[i] = c;
+		}
+		Arrays.sort(multiset);
+		return multiset;
+	}
+}
@@ -0,0 +1,327 @@
+/**
+ *
+ */
+package edu.cs.ai.math.combinatorics;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A mixed-radix counter over {@code int} digits. The digit at position
+ * {@code i} runs from {@code 0} to {@code radices[i]-1}, and the last position
+ * changes fastest. Hence the counter visits all tuples of digits in
+ * lexicographic order, i.e. all variations of its positions.
+ *
+ * The state is kept in a single {@code int[]}, which is updated in place. No
+ * objects are allocated while advancing.
+ *
+ * An odometer created by {@link #reflected(int[])} visits the same tuples in
+ * reflected Gray code order instead (Knuth, Algorithm H): every step changes a
+ * single digit by one, and {@link #changed()} tells which.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+public class Odometer {
+
+	/**
+	 * Marks a number of variations that does not fit into a {@code long}.
+	 */
+	private static final long OVERFLOW = -1L;
+
+	private final int[] radices;
+	private final int[] digits;
+	private boolean valid;
+	// The state of Algorithm H, where Knuth's index j is active[j]
+	private final int[] active;
+	private final int[] focus;
+	private final int[] direction;
+	private int changed = -1;
+
+	public static void main(String[] args) {
+		Odometer odometer = new Odometer(3, 2);
+		do {
+			System.out.println(Arrays.toString(odometer.current()));
+		} while (odometer.advance());
+	}
+
+	/***
+	 * Constructs an odometer with {@code length} positions, all with the same
+	 * radix.
+	 *
+	 * @param radix  the number of values per position
+	 * @param length the number of positions
+	 */
+	public Odometer(int radix, int length) {
+		if (radix < 0 || length < 0)
+			throw new IllegalArgumentException();
+		this.radices = new int[length];
+		Arrays.fill(radices, radix);
+		this.digits = new int[length];
+		this.valid = length == 0 || radix > 0;
+		this.active = null;
+		this.focus = null;
+		this.direction = null;
+	}
+
+	/***
+	 * Constructs an odometer with a radix per position.
+	 *
+	 * @param radices the number of values of every position
+	 */
+	public Odometer(int[] radices) {
+		this(radices, false);
+	}
+
+	private Odometer(int[] radices, boolean reflected) {
+		if (radices == null)
+			throw new IllegalArgumentException();
+		this.radices = radices.clone();
+		this.digits = new int[radices.length];
+		this.valid = true;
+		int moving = 0;
+		for (int radix : radices) {
+			if (radix < 0)
+				throw new IllegalArgumentException();
+			if (radix == 0)
+				valid = false;
+			if (radix > 1)
+				moving += 1;
+		}
+		if (!reflected) {
+			this.active = null;
+			this.focus = null;
+			this.direction = null;
+			return;
+		}
+
+		// H1 [Initialize.] Positions with a single value never move, so they are
+		// left out. The last position is the fastest one, like in counting order.
+		this.active = new int[moving];
+		for (int i = radices.length - 1, j = 0; i >= 0; i--)
+			if (radices[i] > 1)
+				active[j++] = i;
+		this.focus = new int[moving + 1];
+		for (int j = 0; j <= moving; j++)
+			focus[j] = j;
+		this.direction = new int[moving];
+		Arrays.fill(direction, 1);
+	}
+
+	/***
+	 * Constructs an odometer with a radix per position, which visits the tuples in
+	 * reflected Gray code order. Every step changes exactly one digit by plus or
+	 * minus one, and takes constant time.
+	 *
+	 * @param radices the number of values of every position
+	 */
+	public static Odometer reflected(int[] radices) {
+		return new Odometer(radices, true);
+	}
+
+	/***
+	 * The number of positions
+	 */
+	public int length() {
+		return digits.length;
+	}
+
+	/***
+	 * Returns false, if the odometer ran through all variations. An odometer
+	 * where a position has radix {@code 0} has no variation at all.
+	 */
+	public boolean hasCurrent() {
+		return valid;
+	}
+
+	/***
+	 * The digits of the current variation. The array is updated in place by
+	 * {@link #advance()} and must not be modified.
+	 */
+	public int[] current() {
+		if (!valid)
+			throw new NoSuchElementException();
+		return digits;
+	}
+
+	/***
+	 * Moves to the next variation.
+	 *
+	 * @return false, if there is no next variation
+	 */
+	public boolean advance() {
+		if (!valid)
+			return false;
+		if (active != null)
+			return advanceReflected();
+		for (int i = digits.length - 1; i >= 0; i--) {
+			if (digits[i] + 1 < radices[i]) {
+				digits[i] += 1;
+				changed = i;
+				return true;
+			}
+			digits[i] = 0;
+		}
+		valid = false;
+		return false;
+	}
+
+	private boolean advanceReflected() {
+		// H3 [Choose j.]
+		int j = focus[0];
+		focus[0] = 0;
+		// H4 [Change coordinate j.]
+		if (j == active.length) {
+			valid = false;
+			return false;
+		}
+		changed = active[j];
+		digits[changed] += direction[j];
+		// H5 [Reflect?]
+		if (digits[changed] == 0 || digits[changed] == radices[changed] - 1) {
+			direction[j] = -direction[j];
+			focus[j] = focus[j + 1];
+			focus[j + 1] = j + 1;
+		}
+		return true;
+	}
+
+	/***
+	 * The position changed by the last call of {@link #advance()}, or {@code -1}
+	 * before the first one. In counting order this is the leftmost changed
+	 * position, in reflected order the only one.
+	 */
+	public int changed() {
+		return changed;
+	}
+
+	/***
+	 * The rank of the current variation in counting order, i.e. its digits read
+	 * as a mixed-radix number.
+	 *
+	 * @throws IllegalStateException if the odometer runs in reflected order
+	 * @throws ArithmeticException   if the rank does not fit into a {@code long}
+	 */
+	public long rank() {
+		if (active != null)
+			throw new IllegalStateException();
+		long rank = 0L;
+		for (int i = 0; i < digits.length; i++)
+			rank = Math.addExact(Math.multiplyExact(rank, radices[i]), current()[i]);
+		return rank;
+	}
+
+	/***
+	 * Moves to the variation with the given rank in counting order, by decoding
+	 * it in the mixed radix of the positions. This takes time linear in the
+	 * number of positions. If the number of variations does not fit into a
+	 * {@code long}, every non-negative rank is valid.
+	 *
+	 * @param rank the rank, between {@code 0} and {@link #size()}{@code -1}
+	 * @throws IllegalStateException if the odometer runs in reflected order
+	 */
+	public void setRank(long rank) {
+		if (active != null)
+			throw new IllegalStateException();
+		long size = sizeOrOverflow();
+		if (rank < 0L || (size != OVERFLOW && rank >= size))
+			throw new IllegalArgumentException();
+		for (int i = digits.length - 1; i >= 0; i--) {
+			digits[i] = (int) (rank % radices[i]);
+			rank /= radices[i];
+		}
+		valid = true;
+	}
+
+	/***
+	 * The number of variations, i.e. the product of the radices.
+	 *
+	 * @throws ArithmeticException if the value does not fit into a {@code long}
+	 */
+	public long size() {
+		// A radix 0 empties the product, also after an overflow
+		for (int radix : radices)
+			if (radix == 0)
+				return 0L;
+		long size = 1L;
+		for (int radix : radices)
+			size = Math.multiplyExact(size, radix);
+		return size;
+	}
+
+	/***
+	 * The number of variations, or {@link #OVERFLOW} if it does not fit into a
+	 * {@code long}.
+	 */
+	private long sizeOrOverflow() {
+		try {
+			return size();
+		} catch (ArithmeticException e) {
+			return OVERFLOW;
+		}
+	}
+
+	/***
+	 * Copies the next variations into the rows of {@code block}, and advances the
+	 * odometer past them. Every row needs at least {@link #length()} entries.
+	 *
+	 * @param block the caller supplied block of variations
+	 * @return the number of filled rows, which is less than {@code block.length}
+	 *         only if the odometer ran through all variations
+	 */
+	public int fill(int[][] block) {
+		int rows = 0;
+		while (valid && rows < block.length) {
+			System.arraycopy(digits, 0, block[rows], 0, digits.length);
+			rows += 1;
+			advance();
+		}
+		return rows;
+	}
+
+	/***
+	 * Returns a read-only view of the current variation, where every digit
+	 * selects an entry of {@code elements}. The view follows the odometer, i.e. it
+	 * changes when the odometer advances.
+	 *
+	 * @param elements the values of the digits
+	 */
+	public <T> List<T> view(List<T> elements) {
+		return new AbstractList<T>() {
+			@Override
+			public T get(int index) {
+				return elements.get(digits[index]);
+			}
+
+			@Override
+			public int size() {
+				return digits.length;
+			}
+		};
+	}
+
+	/***
+	 * Returns a read-only view of the current tuple, where the digit at position
+	 * {@code i} selects an entry of {@code domains.get(i)}. The view follows the
+	 * odometer, i.e. it changes when the odometer advances.
+	 *
+	 * @param domains the values of the digits, one list per position
+	 */
+	public <T> List<T> domainView(List<? extends List<T>> domains) {
+		if (domains.size() != digits.length)
+			throw new IllegalArgumentException();
+		return new AbstractList<T>() {
+			@Override
+			public T get(int index) {
+				return domains.get(index).get(digits[index]);
+			}
+
+			@Override
+			public int size() {
+				return digits.length;
+			}
+		};
+	}
+}
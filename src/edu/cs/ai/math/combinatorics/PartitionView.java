@@ -0,0 +1,92 @@
+/**
+ *
+ */
+package edu.cs.ai.math.combinatorics;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A read-only view of a partition as list of blocks. The view and its blocks
+ * are updated in place by the iterator that returned it, so it must be copied
+ * by {@link #snapshot()} if it is retained.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+public final class PartitionView<E> extends AbstractList<List<E>> {
+
+	private final ArrayList<ArrayList<E>> blocks = new ArrayList<>();
+	private final ArrayList<List<E>> views = new ArrayList<>();
+	private int size;
+
+	PartitionView() {
+	}
+
+	/***
+	 * Replaces the partition by the one of the restricted growth string
+	 * {@code rgs} with {@code size} blocks, where the element {@code i} of
+	 * {@code list} is in the block {@code rgs[i]}.
+	 */
+	void assign(List<E> list, int[] rgs, int size) {
+		while (blocks.size() < size) {
+			ArrayList<E> block = new ArrayList<>();
+			blocks.add(block);
+			views.add(Collections.unmodifiableList(block));
+		}
+		for (int i = 0; i < size; i++)
+			blocks.get(i).clear();
+		for (int i = 0; i < rgs.length; i++)
+			blocks.get(rgs[i]).add(list.get(i));
+		this.size = size;
+	}
+
+	/***
+	 * Moves the entry at {@code slot} of the block {@code from} to the end of the
+	 * block {@code to}. The last entry of {@code from} takes the free slot. A block
+	 * {@code to} equal to the number of blocks is opened, and an emptied block
+	 * {@code from} is closed, which has to be the last one.
+	 */
+	void move(int from, int slot, int to) {
+		ArrayList<E> source = blocks.get(from);
+		E element = source.get(slot);
+		source.set(slot, source.get(source.size() - 1));
+		source.remove(source.size() - 1);
+		if (to == size) {
+			if (blocks.size() == size) {
+				ArrayList<E> block = new ArrayList<>();
+				blocks.add(block);
+				views.add(Collections.unmodifiableList(block));
+			}
+			blocks.get(to).clear();
+			size += 1;
+		}
+		blocks.get(to).add(element);
+		if (source.isEmpty())
+			size -= 1;
+	}
+
+	/***
+	 * Returns a copy of the current partition, which is not changed any more.
+	 */
+	public List<List<E>> snapshot() {
+		ArrayList<List<E>> result = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			result.add(new ArrayList<>(blocks.get(i)));
+		return result;
+	}
+
+	@Override
+	public List<E> get(int index) {
+		if (index >= size)
+			throw new IndexOutOfBoundsException(index);
+		return views.get(index);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+}
@@ -0,0 +1,319 @@
+/**
+ *
+ */
+package edu.cs.ai.math.combinatorics;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Enumerates all partitions of a list in a Gray code order, where two
+ * consecutive partitions differ by a single element, that moves to another
+ * block. The blocks keep their number, so a block is only opened or closed at
+ * the end.
+ *
+ * The order is built on the restricted growth strings: each partition of the
+ * first {@code n-1} elements is extended by the blocks of the last element in
+ * the order {@code 0, m, m-1, ..., 1} or {@code 1, 2, ..., m, 0}, where
+ * {@code m} is the number of blocks so far, and the two orders alternate. As
+ * both orders start where the other one ends, only one position changes per
+ * step. The iterative version moves the rightmost position, that has not
+ * reached the end of its order, and reverses the order of all positions after
+ * it. Every position has at least two values, so this takes constant amortised
+ * time.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+public class PartitionsGrayCode {
+
+	/***
+	 * Consumer for the partitions of a Gray code enumeration.
+	 */
+	@FunctionalInterface
+	public interface MoveConsumer<E> {
+		/***
+		 * Visits a partition.
+		 *
+		 * @param blocks  a read-only view of the current partition, which is
+		 *                updated in place and must not be retained. The order of the
+		 *                elements within a block is not specified.
+		 * @param element the element that moved to reach this partition, or
+		 *                {@code null} for the first partition
+		 * @param from    the block the element left, or {@code -1} for the first
+		 *                partition
+		 * @param to      the block the element joined, or {@code -1} for the first
+		 *                partition
+		 */
+		void accept(List<List<E>> blocks, E element, int from, int to);
+	}
+
+	/***
+	 * Consumer for the restricted growth strings of a Gray code enumeration.
+	 */
+	@FunctionalInterface
+	public interface GrowthConsumer {
+		/***
+		 * Visits a restricted growth string.
+		 *
+		 * @param rgs      the current string, which is reused and must not be
+		 *                 modified or retained
+		 * @param position the only position that changed, or {@code -1} for the
+		 *                 first string
+		 * @param from     the previous value at {@code position}
+		 * @param to       the current value at {@code position}
+		 */
+		void accept(int[] rgs, int position, int from, int to);
+	}
+
+	public static void main(String[] args) {
+		forEach(List.of(1, 2, 3, 4),
+				(blocks, e, from, to) -> System.out.println(blocks + " " + e + ": " + from + " -> " + to));
+	}
+
+	/***
+	 * The number of partitions enumerated by {@link #iterator(List)}, i.e. the
+	 * Bell number of {@code input.size()}. Like {@link PartitionsLexicographic},
+	 * there is no partition of the empty input.
+	 *
+	 * @param input a collection with the elements.
+	 */
+	public static <E> BigInteger count(List<E> input) {
+		return PartitionsLexicographic.count(input);
+	}
+
+	/**
+	 * Returns a {@code Stream} of all partitions of the input set in Gray code
+	 * order
+	 *
+	 * @author Kai Sauerwald.
+	 */
+	public static <E> Stream<List<List<E>>> stream(List<E> input) {
+		Iterator<List<List<E>>> itr = iterator(input);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(itr, Spliterator.IMMUTABLE), false);
+	}
+
+	/***
+	 * Returns an iterator over all partitions of the input in Gray code order.
+	 * Every partition is returned as a copy, and the move that led to it is
+	 * available from the iterator.
+	 *
+	 * @author Kai Sauerwald
+	 * @param input a collection with the elements.
+	 */
+	public static <E> GrayCodeIterator<E> iterator(List<E> input) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		return new GrayCodeIterator<>(new ArrayList<>(input));
+	}
+
+	/***
+	 * Hands all partitions of the input in Gray code order to {@code eater},
+	 * together with the move that led to each. The blocks are updated in place,
+	 * so a step takes constant amortised time and an objective over the blocks
+	 * can be updated incrementally.
+	 *
+	 * @param input a collection with the elements.
+	 * @param eater the consumer of the partitions
+	 */
+	public static <E> void forEach(List<E> input, MoveConsumer<E> eater) {
+		GrayCodeIterator<E> itr = iterator(input);
+		while (itr.hasNext()) {
+			itr.advance();
+			eater.accept(itr.view, itr.getElement(), itr.getFrom(), itr.getTo());
+		}
+	}
+
+	/***
+	 * Hands all restricted growth strings of length {@code n} in Gray code order
+	 * to {@code eater}. Nothing is allocated per string.
+	 *
+	 * @param n     the number of elements
+	 * @param eater the consumer of the strings
+	 */
+	public static void forEach(int n, GrowthConsumer eater) {
+		if (n < 0)
+			throw new IllegalArgumentException();
+		if (n == 0)
+			return;
+		Cursor cursor = new Cursor(n);
+		eater.accept(cursor.rgs, -1, -1, -1);
+		while (cursor.advance())
+			eater.accept(cursor.rgs, cursor.position, cursor.from, cursor.to);
+	}
+
+	/***
+	 * Iterator over the partitions in Gray code order. It keeps the blocks of the
+	 * current partition and moves one element per step.
+	 */
+	public static final class GrayCodeIterator<E> implements Iterator<List<List<E>>> {
+		private final List<E> elements;
+		private final Cursor cursor;
+		private final PartitionView<E> view = new PartitionView<>();
+		// slot[i] is the index of element i within its block, and
+		// members[b][s] the element at index s of block b
+		private final int[] slot;
+		private final int[][] members;
+		private final int[] sizes;
+		private boolean started = false;
+		private boolean hasnext;
+
+		GrayCodeIterator(List<E> elements) {
+			int n = elements.size();
+			this.elements = elements;
+			this.cursor = n == 0 ? null : new Cursor(n);
+			this.hasnext = n > 0;
+			this.slot = new int[n];
+			this.members = new int[n][];
+			this.sizes = new int[n];
+			if (n > 0) {
+				// All elements start in the block 0
+				view.assign(elements, cursor.rgs, 1);
+				members[0] = new int[n];
+				for (int i = 0; i < n; i++) {
+					slot[i] = i;
+					members[0][i] = i;
+				}
+				sizes[0] = n;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return hasnext;
+		}
+
+		@Override
+		public List<List<E>> next() {
+			advance();
+			return view.snapshot();
+		}
+
+		private void advance() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+
+			if (started) {
+				cursor.advance();
+				move(cursor.position, cursor.from, cursor.to);
+			}
+			started = true;
+			hasnext = cursor.hasNext();
+		}
+
+		private void move(int i, int from, int to) {
+			int s = slot[i];
+			view.move(from, s, to);
+
+			// The last member of the source block takes the free slot
+			int last = members[from][--sizes[from]];
+			members[from][s] = last;
+			slot[last] = s;
+
+			if (members[to] == null)
+				members[to] = new int[elements.size()];
+			slot[i] = sizes[to];
+			members[to][sizes[to]++] = i;
+		}
+
+		/***
+		 * The element that moved in the last call of {@link #next()}, or
+		 * {@code null} for the first partition.
+		 */
+		public E getElement() {
+			return cursor == null || cursor.position < 0 ? null : elements.get(cursor.position);
+		}
+
+		/***
+		 * The block left by {@link #getElement()}, or {@code -1} for the first
+		 * partition.
+		 */
+		public int getFrom() {
+			return cursor == null ? -1 : cursor.from;
+		}
+
+		/***
+		 * The block joined by {@link #getElement()}, or {@code -1} for the first
+		 * partition.
+		 */
+		public int getTo() {
+			return cursor == null ? -1 : cursor.to;
+		}
+	}
+
+	/***
+	 * A restricted growth string, which is moved to its successor in Gray code
+	 * order in place.
+	 */
+	static final class Cursor {
+		final int[] rgs;
+		// prefix[j] is the number of blocks of rgs[0..j-1]
+		private final int[] prefix;
+		// true, if position j runs through 0, m, ..., 1, and false for 1, ..., m, 0
+		private final boolean[] forward;
+		int position = -1;
+		int from = -1;
+		int to = -1;
+
+		Cursor(int n) {
+			this.rgs = new int[n];
+			this.prefix = new int[n];
+			Arrays.fill(prefix, 1);
+			prefix[0] = 0;
+			this.forward = new boolean[n];
+			Arrays.fill(forward, true);
+		}
+
+		/***
+		 * True, if some position has not reached the end of its order.
+		 */
+		boolean hasNext() {
+			for (int j = rgs.length - 1; j >= 1; j--)
+				if (rgs[j] != (forward[j] ? 1 : 0))
+					return true;
+			return false;
+		}
+
+		/***
+		 * Moves to the next restricted growth string.
+		 *
+		 * @return false, if there is no next string
+		 */
+		boolean advance() {
+			int n = rgs.length;
+			for (int j = n - 1; j >= 1; j--) {
+				int v = rgs[j];
+				int m = prefix[j];
+				if (forward[j] ? v == 1 : v == 0)
+					continue;
+
+				int w;
+				if (forward[j])
+					w = v == 0 ? m : v - 1;
+				else
+					w = v == m ? 0 : v + 1;
+				rgs[j] = w;
+				position = j;
+				from = v;
+				to = w;
+
+				// The positions after j are at the end of their order, which is the
+				// start of the reversed one
+				for (int l = j + 1; l < n; l++) {
+					prefix[l] = Math.max(prefix[l - 1], rgs[l - 1] + 1);
+					forward[l] = !forward[l];
+				}
+				return true;
+			}
+			return false;
+		}
+	}
+}
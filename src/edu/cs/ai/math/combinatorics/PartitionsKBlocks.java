@@ -0,0 +1,277 @@
+/**
+ *
+ */
+package edu.cs.ai.math.combinatorics;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Enumerates the partitions of a list into a bounded number of blocks, i.e.
+ * the partitions of {@link PartitionsLexicographic} with at least {@code kmin}
+ * and at most {@code kmax} blocks, ordered by their number of blocks.
+ *
+ * The partitions are generated as restricted growth strings by the recursion
+ * of Ruskey on the last element: it either joins one of the {@code k} blocks
+ * of a partition of the others into {@code k} blocks, or it forms a block of
+ * its own next to {@code k-1} blocks. Every prefix on the way has at least two
+ * continuations, except the ones with a single block or with a block per
+ * element, which are written at once, so a step takes constant amortised
+ * time. The order within a number of blocks is not lexicographic.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+public class PartitionsKBlocks {
+
+	public static void main(String[] args) {
+		stream(List.of(1, 2, 3, 4), 2).forEach(System.out::println);
+		System.out.println(count(List.of(1, 2, 3, 4, 5, 6), 2, 3));
+	}
+
+	/***
+	 * The number of partitions enumerated by {@link #iterator(List, int)}, i.e.
+	 * the Stirling number of the second kind {@code S(n,k)}. Like
+	 * {@link PartitionsLexicographic}, there is no partition of the empty input.
+	 *
+	 * @param input a collection with the elements.
+	 * @param k     the number of blocks
+	 */
+	public static <E> BigInteger count(List<E> input, int k) {
+		return count(input, k, k);
+	}
+
+	/***
+	 * The number of partitions enumerated by {@link #iterator(List, int, int)},
+	 * i.e. the sum of the Stirling numbers {@code S(n,k)} for
+	 * {@code kmin <= k <= kmax}.
+	 *
+	 * @param input a collection with the elements.
+	 * @param kmin  the least number of blocks
+	 * @param kmax  the largest number of blocks
+	 */
+	public static <E> BigInteger count(List<E> input, int kmin, int kmax) {
+		if (input == null || kmin < 1 || kmin > kmax)
+			throw new IllegalArgumentException();
+		BigInteger result = BigInteger.ZERO;
+		for (int k = kmin; k <= Math.min(kmax, input.size()); k++)
+			result = result.add(CombinatorialNumbers.stirling2(input.size(), k));
+		return result;
+	}
+
+	/**
+	 * Returns a {@code Stream} of all partitions of the input set into exactly
+	 * {@code k} blocks
+	 *
+	 * @author Kai Sauerwald.
+	 */
+	public static <E> Stream<List<List<E>>> stream(List<E> input, int k) {
+		return stream(input, k, k);
+	}
+
+	/**
+	 * Returns a {@code Stream} of all partitions of the input set into
+	 * {@code kmin} up to {@code kmax} blocks
+	 *
+	 * @author Kai Sauerwald.
+	 */
+	public static <E> Stream<List<List<E>>> stream(List<E> input, int kmin, int kmax) {
+		Iterator<List<List<E>>> itr = iterator(input, kmin, kmax);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(itr, Spliterator.IMMUTABLE), false);
+	}
+
+	/***
+	 * Returns an iterator, that allows iteration of all partitions of the given
+	 * set into exactly {@code k} blocks.
+	 *
+	 * @author Kai Sauerwald
+	 * @param input a collection with the elements.
+	 * @param k     the number of blocks
+	 */
+	public static <E> Iterator<List<List<E>>> iterator(List<E> input, int k) {
+		return iterator(input, k, k);
+	}
+
+	/***
+	 * Returns an iterator, that allows iteration of all partitions of the given
+	 * set into {@code kmin} up to {@code kmax} blocks.
+	 *
+	 * @author Kai Sauerwald
+	 * @param input a collection with the elements.
+	 * @param kmin  the least number of blocks
+	 * @param kmax  the largest number of blocks
+	 */
+	public static <E> Iterator<List<List<E>>> iterator(List<E> input, int kmin, int kmax) {
+		if (input == null || kmin < 1 || kmin > kmax)
+			throw new IllegalArgumentException();
+
+		return new Iterator<List<List<E>>>() {
+			private final List<E> list = new ArrayList<>(input);
+			private final Cursor cursor = new Cursor(list.size(), kmin, kmax);
+			private boolean hasnext = cursor.valid;
+
+			@Override
+			public boolean hasNext() {
+				return hasnext;
+			}
+
+			@Override
+			public List<List<E>> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+
+				List<List<E>> result = PartitionsLexicographic.blocks(list, cursor.rgs);
+				hasnext = cursor.advance();
+				return result;
+			}
+		};
+	}
+
+	/***
+	 * Returns an iterator over the same partitions as
+	 * {@link #iterator(List, int, int)}, which returns the same read-only view for
+	 * every partition and updates it in place. Use
+	 * {@link PartitionView#snapshot()} to retain a partition.
+	 *
+	 * @param input a collection with the elements.
+	 * @param kmin  the least number of blocks
+	 * @param kmax  the largest number of blocks
+	 */
+	public static <E> Iterator<PartitionView<E>> reusingIterator(List<E> input, int kmin, int kmax) {
+		if (input == null || kmin < 1 || kmin > kmax)
+			throw new IllegalArgumentException();
+
+		return new Iterator<PartitionView<E>>() {
+			private final List<E> list = Collections.unmodifiableList(input);
+			private final Cursor cursor = new Cursor(list.size(), kmin, kmax);
+			private final PartitionView<E> view = new PartitionView<>();
+			private boolean hasnext = cursor.valid;
+
+			@Override
+			public boolean hasNext() {
+				return hasnext;
+			}
+
+			@Override
+			public PartitionView<E> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+
+				view.assign(list, cursor.rgs, cursor.blocks);
+				hasnext = cursor.advance();
+				return view;
+			}
+		};
+	}
+
+	/***
+	 * A restricted growth string with {@code kmin} up to {@code kmax} blocks,
+	 * which is moved to its successor in place. The strings with {@code k}
+	 * blocks are generated by the recursion {@code S(m,j) = j S(m-1,j) +
+	 * S(m-1,j-1)} on the last position of a prefix of length {@code m} with
+	 * {@code j} blocks, which runs on an explicit stack of frames, one per
+	 * prefix length.
+	 */
+	static final class Cursor {
+		final int[] rgs;
+		private final int kmax;
+		// The frame of the prefix length m has blocksAt[m] blocks and continues
+		// with its child childAt[m]. The frames low..n are on the current path.
+		private final int[] blocksAt;
+		private final int[] childAt;
+		private int low;
+		final boolean valid;
+		int blocks;
+
+		Cursor(int n, int kmin, int kmax) {
+			this.rgs = new int[n];
+			this.kmax = kmax;
+			this.blocksAt = new int[n + 1];
+			this.childAt = new int[n + 1];
+			this.valid = n > 0 && kmin <= n;
+			if (valid) {
+				blocks = kmin;
+				descend(n, kmin);
+			}
+		}
+
+		/***
+		 * Moves to the next restricted growth string. The lowest frame with a child
+		 * left continues with it, and the strings with one more block follow the
+		 * last one with {@code blocks} blocks.
+		 *
+		 * @return false, if there is no next string
+		 */
+		boolean advance() {
+			int n = rgs.length;
+			for (int m = low; m <= n; m++) {
+				int j = blocksAt[m];
+				int c = childAt[m];
+				if (c > j)
+					continue;
+				childAt[m] = c + 1;
+				if (c < j) {
+					// The last position joins the block c of a prefix with j blocks
+					rgs[m - 1] = c;
+					if (j == m - 1)
+						low = m;
+					else
+						descend(m - 1, j);
+				} else {
+					// The last position opens the block j-1 after j-1 blocks
+					rgs[m - 1] = j - 1;
+					descend(m - 1, j - 1);
+				}
+				return true;
+			}
+			if (blocks < Math.min(kmax, n)) {
+				blocks += 1;
+				descend(n, blocks);
+				return true;
+			}
+			return false;
+		}
+
+		/***
+		 * Writes the first string of the prefix of length {@code m} with {@code j}
+		 * blocks. The prefixes with a single block or with {@code m} blocks have
+		 * only one string and need no frame. A prefix with {@code m-1} blocks visits
+		 * the strings of its first {@code j} children directly, as they share the
+		 * prefix {@code 0, 1, ..., m-2}, which is hence written only once.
+		 */
+		private void descend(int m, int j) {
+			while (true) {
+				if (j == 1) {
+					Arrays.fill(rgs, 0, m, 0);
+					low = m + 1;
+					return;
+				}
+				if (j == m) {
+					for (int i = 0; i < m; i++)
+						rgs[i] = i;
+					low = m + 1;
+					return;
+				}
+				blocksAt[m] = j;
+				childAt[m] = 1;
+				rgs[m - 1] = 0;
+				if (j == m - 1) {
+					for (int i = 0; i < m - 1; i++)
+						rgs[i] = i;
+					low = m;
+					return;
+				}
+				m -= 1;
+			}
+		}
+	}
+}
@@ -3,8 +3,11 @@
  */
 package edu.cs.ai.math.combinatorics;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -12,6 +15,7 @@ import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.SplittableRandom;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -21,7 +25,43 @@ import java.util.stream.StreamSupport;
  *
  */
 public class PartitionsLexicographic {
-	
+
+	/**
+	 * The largest number of elements, such that all ranks fit into a
+	 * {@code long}.
+	 */
+	static final int MAX_RANKED_SIZE = 25;
+
+	/**
+	 * {@code COMPLETIONS[r][m]} is the number of ways to complete a restricted
+	 * growth string with a prefix of {@code m} blocks by {@code r} further
+	 * positions. Only the entries with {@code r + m <= MAX_RANKED_SIZE} are used.
+	 */
+	private static final long[][] COMPLETIONS = new long[MAX_RANKED_SIZE][MAX_RANKED_SIZE + 1];
+
+	static {
+		for (int m = 1; m <= MAX_RANKED_SIZE; m++)
+			COMPLETIONS[0][m] = 1L;
+		for (int r = 1; r < MAX_RANKED_SIZE; r++)
+			for (int m = 1; r + m <= MAX_RANKED_SIZE; m++)
+				COMPLETIONS[r][m] = m * COMPLETIONS[r - 1][m] + COMPLETIONS[r - 1][m + 1];
+	}
+
+	/***
+	 * The number of partitions enumerated by {@link #iterator(List)}, i.e. the
+	 * Bell number of {@code input.size()}. Note that the iterator yields nothing
+	 * for the empty input.
+	 * 
+	 * @param input a collection with the elements.
+	 */
+	public static <E> BigInteger count(List<E> input) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		if (input.size() == 0)
+			return BigInteger.ZERO;
+		return CombinatorialNumbers.bell(input.size());
+	}
+
 	/**
 	 * Returns a {@code Stream} of all partitions of the input set
 	 * 
@@ -77,23 +117,112 @@ public class PartitionsLexicographic {
 			}
 		};
 		
-		// Here starts Algorithm H		
+		// Here starts Algorithm H
+		// H1 [initialization]
+		return iterator(input, new int[input.size()], null);
+	}
+
+	/***
+	 * Returns an iterator over the same partitions as {@link #iterator(List)},
+	 * which returns the same read-only view for every partition and updates it in
+	 * place. Use {@link PartitionView#snapshot()} to retain a partition.
+	 * 
+	 * @param input a collection with the elements.
+	 */
+	public static <E> Iterator<PartitionView<E>> reusingIterator(List<E> input) {
+		if (input == null)
+			throw new IllegalArgumentException();
+
+		PartitionView<E> view = new PartitionView<>();
+		Iterator<List<List<E>>> itr;
+		if (input.size() >= 2)
+			itr = iterator(input, new int[input.size()], view);
+		else
+			itr = iterator(input);
+
+		return new Iterator<PartitionView<E>>() {
+			@Override
+			public boolean hasNext() {
+				return itr.hasNext();
+			}
+
+			@Override
+			public PartitionView<E> next() {
+				itr.next();
+				if (input.size() < 2)
+					view.assign(input, new int[input.size()], input.size());
+				return view;
+			}
+		};
+	}
+
+	/***
+	 * Returns an iterator, that starts at the partition with the given rank and
+	 * visits all following partitions.
+	 * 
+	 * @param input a collection with the elements.
+	 * @param rank  the rank of the first partition, see {@link #rank(int[])}
+	 */
+	public static <E> Iterator<List<List<E>>> iterator(List<E> input, long rank) {
+		if (input == null || input.size() == 0)
+			throw new IllegalArgumentException();
+		if (input.size() == 1) {
+			if (rank != 0L)
+				throw new IllegalArgumentException();
+			return iterator(input);
+		}
+
+		int[] rgs = new int[input.size()];
+		unrank(rank, rgs);
+		return iterator(input, rgs, null);
+	}
+
+	/***
+	 * Returns an iterator, that starts at the partition with the given rank and
+	 * visits all following partitions, for any number of elements.
+	 * 
+	 * @param input a collection with the elements.
+	 * @param rank  the rank of the first partition, see {@link #bigRank(int[])}
+	 */
+	public static <E> Iterator<List<List<E>>> iterator(List<E> input, BigInteger rank) {
+		if (input == null || input.size() == 0)
+			throw new IllegalArgumentException();
+		if (input.size() == 1) {
+			if (rank.signum() != 0)
+				throw new IllegalArgumentException();
+			return iterator(input);
+		}
+
+		int[] rgs = new int[input.size()];
+		unrank(rank, rgs);
+		return iterator(input, rgs, null);
+	}
+
+	/***
+	 * Algorithm H starting at the restricted growth string {@code start}, for at
+	 * least two elements. If {@code view} is given, it is updated and returned
+	 * for every partition.
+	 */
+	private static <E> Iterator<List<List<E>>> iterator(List<E> input, int[] start, PartitionView<E> view) {
 		int n_tmp = input.size();
 
-		int[] aj_tmp = new int[n_tmp]; // Array for a_1,\ldots a_n;
+		int[] aj_tmp = start; // Array for a_1,\ldots a_n;
 		int[] bj_tmp = new int[n_tmp]; // Array for b_1,\ldots b_n;
-		
-		// H1 [initialization]
-		for (int i = 0; i < n_tmp; i++) {
-			aj_tmp[i] =0;
-			bj_tmp[i] =1;
+
+		// b_j = 1 + max(a_1, .., a_{j-1})
+		int max = 0;
+		bj_tmp[0] = 1;
+		for (int i = 1; i < n_tmp; i++) {
+			bj_tmp[i] = 1 + max;
+			max = Math.max(max, aj_tmp[i]);
 		}
+		int m_tmp = bj_tmp[n_tmp - 1];
 
 		return new Iterator<List<List<E>>>() {
 			// H1 [initialization]
 			List<E> list = new ArrayList<E>(input);
 			boolean finished = false;
-			int m = 1;
+			int m = m_tmp;
 			int n = n_tmp;
 			// a_1 \ldots a_{m+1}
 			int[] ajs = aj_tmp;
@@ -121,13 +250,19 @@ public class PartitionsLexicographic {
 				
 				// H2 [Visit.]
 				int tmp_m = m + (ajs[n-1] == m ? 1 : 0);
-				ArrayList<List<E>> blocks = new ArrayList<>(tmp_m);
-				for (int i = 0; i < tmp_m; i++) {
-					ArrayList<E> block = new ArrayList<E>();
-					blocks.add(block);
-				}
-				for(int i =0; i< n; i++) {
-					blocks.get(ajs[i]).add(list.get(i));
+				List<List<E>> blocks;
+				if (view != null) {
+					view.assign(list, ajs, tmp_m);
+					blocks = view;
+				} else {
+					blocks = new ArrayList<>(tmp_m);
+					for (int i = 0; i < tmp_m; i++) {
+						ArrayList<E> block = new ArrayList<E>();
+						blocks.add(block);
+					}
+					for (int i = 0; i < n; i++) {
+						blocks.get(ajs[i]).add(list.get(i));
+					}
 				}
 				
 				assert !blocks.stream().anyMatch(b -> b.size()==0);
@@ -168,6 +303,211 @@ public class PartitionsLexicographic {
 		};
 	}
 	
+	/***
+	 * Computes the rank of a restricted growth string in the order of
+	 * {@link #iterator(List)}. A restricted growth string {@code a} encodes the
+	 * partition where the element {@code i} is in the block {@code a[i]}, and
+	 * every block index is at most one larger than the indices before it.
+	 * 
+	 * @param rgs the restricted growth string
+	 * @throws IllegalArgumentException if the string is longer than
+	 *                                  {@value #MAX_RANKED_SIZE}, see
+	 *                                  {@link #bigRank(int[])} for longer ones
+	 */
+	public static long rank(int[] rgs) {
+		int n = rgs.length;
+		if (n == 0 || n > MAX_RANKED_SIZE || rgs[0] != 0)
+			throw new IllegalArgumentException();
+
+		long rank = 0L;
+		// the number of blocks of the prefix
+		int m = 1;
+		for (int i = 1; i < n; i++) {
+			if (rgs[i] < 0 || rgs[i] > m)
+				throw new IllegalArgumentException();
+			rank += rgs[i] * COMPLETIONS[n - 1 - i][m];
+			if (rgs[i] == m)
+				m += 1;
+		}
+		return rank;
+	}
+
+	/***
+	 * Writes the restricted growth string with the given rank into {@code rgs}.
+	 * 
+	 * @param rank the rank, between {@code 0} and {@code B(n)-1}
+	 * @param rgs  the array receiving the restricted growth string
+	 */
+	public static void unrank(long rank, int[] rgs) {
+		int n = rgs.length;
+		if (n == 0 || n > MAX_RANKED_SIZE || rank < 0L || rank >= COMPLETIONS[n - 1][1])
+			throw new IllegalArgumentException();
+
+		rgs[0] = 0;
+		int m = 1;
+		for (int i = 1; i < n; i++) {
+			long block = COMPLETIONS[n - 1 - i][m];
+			if (rank < m * block) {
+				rgs[i] = (int) (rank / block);
+				rank -= rgs[i] * block;
+			} else {
+				rgs[i] = m;
+				rank -= m * block;
+				m += 1;
+			}
+		}
+	}
+
+	/***
+	 * Computes the rank of a restricted growth string like {@link #rank(int[])},
+	 * for strings of any length.
+	 * 
+	 * @param rgs the restricted growth string
+	 */
+	public static BigInteger bigRank(int[] rgs) {
+		int n = rgs.length;
+		if (n == 0 || rgs[0] != 0)
+			throw new IllegalArgumentException();
+
+		BigInteger rank = BigInteger.ZERO;
+		int m = 1;
+		for (int i = 1; i < n; i++) {
+			if (rgs[i] < 0 || rgs[i] > m)
+				throw new IllegalArgumentException();
+			if (rgs[i] > 0)
+				rank = rank.add(completions(n - 1 - i, m).multiply(BigInteger.valueOf(rgs[i])));
+			if (rgs[i] == m)
+				m += 1;
+		}
+		return rank;
+	}
+
+	/***
+	 * Writes the restricted growth string with the given rank into {@code rgs},
+	 * like {@link #unrank(long, int[])}, for strings of any length.
+	 * 
+	 * @param rank the rank, between {@code 0} and {@code B(n)-1}
+	 * @param rgs  the array receiving the restricted growth string
+	 */
+	public static void unrank(BigInteger rank, int[] rgs) {
+		int n = rgs.length;
+		if (n == 0 || rank.signum() < 0 || rank.compareTo(CombinatorialNumbers.bell(n)) >= 0)
+			throw new IllegalArgumentException();
+
+		rgs[0] = 0;
+		int m = 1;
+		for (int i = 1; i < n; i++) {
+			BigInteger block = completions(n - 1 - i, m);
+			BigInteger[] qr = rank.divideAndRemainder(block);
+			if (qr[0].compareTo(BigInteger.valueOf(m)) < 0) {
+				rgs[i] = qr[0].intValue();
+				rank = qr[1];
+			} else {
+				rgs[i] = m;
+				rank = rank.subtract(block.multiply(BigInteger.valueOf(m)));
+				m += 1;
+			}
+		}
+	}
+
+	/***
+	 * The number of ways to complete a restricted growth string with {@code m}
+	 * blocks by {@code r} further positions, i.e. the entry of
+	 * {@code COMPLETIONS} for any size. Out of the {@code r} elements, {@code i}
+	 * are partitioned into new blocks and the others join one of the {@code m}
+	 * blocks.
+	 */
+	private static BigInteger completions(int r, int m) {
+		BigInteger sum = BigInteger.ZERO;
+		BigInteger joined = BigInteger.ONE;
+		for (int i = r; i >= 0; i--) {
+			sum = sum.add(CombinatorialNumbers.binomial(r, i).multiply(joined).multiply(CombinatorialNumbers.bell(i)));
+			joined = joined.multiply(BigInteger.valueOf(m));
+		}
+		return sum;
+	}
+
+	/***
+	 * Computes the rank of a partition of the input.
+	 * 
+	 * @param input     a collection with the elements.
+	 * @param partition a partition of the elements
+	 */
+	public static <E> long rank(List<E> input, List<List<E>> partition) {
+		HashMap<E, Integer> blockOf = new HashMap<>();
+		for (int b = 0; b < partition.size(); b++)
+			for (E e : partition.get(b))
+				if (blockOf.put(e, b) != null)
+					throw new IllegalArgumentException();
+		if (blockOf.size() != input.size())
+			throw new IllegalArgumentException();
+
+		// Number the blocks by their first element
+		int[] label = new int[partition.size()];
+		Arrays.fill(label, -1);
+		int[] rgs = new int[input.size()];
+		int m = 0;
+		for (int i = 0; i < rgs.length; i++) {
+			Integer b = blockOf.get(input.get(i));
+			if (b == null)
+				throw new IllegalArgumentException();
+			if (label[b] < 0)
+				label[b] = m++;
+			rgs[i] = label[b];
+		}
+		return rank(rgs);
+	}
+
+	/***
+	 * Returns the partition of the input with the given rank.
+	 * 
+	 * @param input a collection with the elements.
+	 * @param rank  the rank, between {@code 0} and {@code B(n)-1}
+	 */
+	public static <E> List<List<E>> unrank(List<E> input, long rank) {
+		int[] rgs = new int[input.size()];
+		unrank(rank, rgs);
+		return blocks(input, rgs);
+	}
+
+	static <E> List<List<E>> blocks(List<E> input, int[] rgs) {
+		int blocks = 0;
+		for (int a : rgs)
+			blocks = Math.max(blocks, a + 1);
+		ArrayList<List<E>> result = new ArrayList<>(blocks);
+		for (int i = 0; i < blocks; i++)
+			result.add(new ArrayList<E>());
+		for (int i = 0; i < rgs.length; i++)
+			result.get(rgs[i]).add(input.get(i));
+		return result;
+	}
+
+	/***
+	 * Writes the restricted growth string of a uniform random partition into
+	 * {@code rgs}. The partition is sampled by Stam's algorithm in expected
+	 * {@code O(n)} time without enumeration, see {@link UrnSampling}.
+	 * 
+	 * @param rgs    the array receiving the restricted growth string
+	 * @param random the source of randomness
+	 */
+	public static void sample(int[] rgs, SplittableRandom random) {
+		UrnSampling.samplePartition(rgs, random);
+	}
+
+	/***
+	 * Returns a uniform random partition of the input.
+	 * 
+	 * @param input  a collection with the elements.
+	 * @param random the source of randomness
+	 */
+	public static <E> List<List<E>> sample(List<E> input, SplittableRandom random) {
+		if (input == null || input.size() == 0)
+			throw new IllegalArgumentException();
+		int[] rgs = new int[input.size()];
+		sample(rgs, random);
+		return blocks(input, rgs);
+	}
+
 	public static void main(String[] args) {
 		iterator(List.of()).forEachRemaining(l -> {
 			System.out.println(l);
@@ -0,0 +1,290 @@
+/**
+ *
+ */
+package edu.cs.ai.math.combinatorics;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Enumerates all permutations of a list in lexicographic order of the index
+ * permutations, i.e. in the same order as
+ * {@link EnumerativeCombinatorics#generatePermutations(List, java.util.function.Consumer)}.
+ *
+ * Permutations are addressed by their rank in this order via the Lehmer code,
+ * which allows to split the enumeration into independent rank ranges.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+public class PermutationsLexicographic {
+
+	/**
+	 * The largest number of elements, such that all ranks fit into a
+	 * {@code long}.
+	 */
+	static final int MAX_RANKED_SIZE = 20;
+
+	public static void main(String[] args) {
+		stream(List.of(1, 2, 3, 4)).forEach(System.out::println);
+		System.out.println(stream(List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10)).parallel().count());
+	}
+
+	/**
+	 * Returns a {@code Stream} of all permutations of the input list. For at most
+	 * {@value #MAX_RANKED_SIZE} elements the stream is sized and splits by rank
+	 * ranges, so it is suited for parallel processing.
+	 *
+	 * @author Kai Sauerwald.
+	 */
+	public static <E> Stream<List<E>> stream(List<E> input) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		if (input.size() > MAX_RANKED_SIZE) {
+			// Ordered like the sized stream, also when run in parallel
+			Iterator<List<E>> itr = iterator(input);
+			return StreamSupport.stream(
+					Spliterators.spliteratorUnknownSize(itr, Spliterator.ORDERED | Spliterator.IMMUTABLE), false);
+		}
+		return StreamSupport.stream(
+				new PermutationSpliterator<>(new ArrayList<>(input), 0L,
+						CombinatorialNumbers.factorialLong(input.size())),
+				false);
+	}
+
+	/***
+	 * Returns an iterator, that allows iteration of all permutations of the input
+	 * list in lexicographic order.
+	 *
+	 * @author Kai Sauerwald
+	 * @param input a list with the elements.
+	 */
+	public static <E> Iterator<List<E>> iterator(List<E> input) {
+		if (input == null)
+			throw new IllegalArgumentException();
+
+		int[] start = new int[input.size()];
+		for (int i = 0; i < start.length; i++)
+			start[i] = i;
+
+		return new Iterator<List<E>>() {
+			private final List<E> list = new ArrayList<>(input);
+			private final int[] permutation = start;
+			private boolean hasnext = true;
+
+			@Override
+			public boolean hasNext() {
+				return hasnext;
+			}
+
+			@Override
+			public List<E> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+
+				List<E> result = select(list, permutation);
+				hasnext = PermutationsLexicographic.next(permutation);
+				return result;
+			}
+		};
+	}
+
+	/***
+	 * Computes the rank of a permutation of {@code 0..n-1} in lexicographic order
+	 * via its Lehmer code.
+	 *
+	 * @param permutation a permutation of the indices {@code 0..n-1}
+	 */
+	public static long rank(int[] permutation) {
+		int n = permutation.length;
+		if (n > MAX_RANKED_SIZE)
+			throw new IllegalArgumentException();
+
+		long rank = 0L;
+		for (int i = 0; i < n; i++) {
+			// The i-th digit of the Lehmer code
+			int smaller = 0;
+			for (int j = i + 1; j < n; j++)
+				if (permutation[j] < permutation[i])
+					smaller += 1;
+			rank = rank * (n - i) + smaller;
+		}
+		return rank;
+	}
+
+	/***
+	 * Writes the permutation of {@code 0..n-1} with the given rank into
+	 * {@code permutation}, where {@code n = permutation.length}.
+	 *
+	 * @param rank        the lexicographic rank, between {@code 0} and
+	 *                    {@code n!-1}
+	 * @param permutation the array receiving the permutation
+	 */
+	public static void unrank(long rank, int[] permutation) {
+		int n = permutation.length;
+		if (n > MAX_RANKED_SIZE || rank < 0 || rank >= CombinatorialNumbers.factorialLong(n))
+			throw new IllegalArgumentException();
+
+		// Decode the Lehmer code from the least significant digit
+		for (int i = n - 1; i >= 0; i--) {
+			permutation[i] = (int) (rank % (n - i));
+			rank /= (n - i);
+		}
+		// Replace every digit by the unused index of that order
+		for (int i = n - 1; i >= 0; i--)
+			for (int j = i + 1; j < n; j++)
+				if (permutation[j] >= permutation[i])
+					permutation[j] += 1;
+	}
+
+	/***
+	 * Rearranges {@code a} into the lexicographically next permutation (Knuth,
+	 * Algorithm L). Repeated values are handled, so the distinct arrangements of
+	 * a multiset are visited exactly once.
+	 *
+	 * @return false, if {@code a} was the last permutation. In this case
+	 *         {@code a} is left unchanged.
+	 */
+	public static boolean next(int[] a) {
+		// L2 [Find j.]
+		int j = a.length - 2;
+		while (j >= 0 && a[j] >= a[j + 1])
+			j--;
+		if (j < 0)
+			return false;
+		// L3 [Increase a_j.]
+		int l = a.length - 1;
+		while (a[j] >= a[l])
+			l--;
+		int tmp = a[j];
+		a[j] = a[l];
+		a[l] = tmp;
+		// L4 [Reverse a_{j+1} .. a_n.]
+		for (int k = j + 1, r = a.length - 1; k < r; k++, r--) {
+			tmp = a[k];
+			a[k] = a[r];
+			a[r] = tmp;
+		}
+		return true;
+	}
+
+	static <E> List<E> select(List<E> list, int[] indices) {
+		ArrayList<E> result = new ArrayList<>(indices.length);
+		for (int i = 0; i < indices.length; i++)
+			result.add(list.get(indices[i]));
+		return result;
+	}
+
+	/***
+	 * Writes a uniform random permutation of {@code 0..n-1} into
+	 * {@code permutation}, where {@code n = permutation.length} (Fisher-Yates
+	 * shuffle).
+	 *
+	 * @param permutation the array receiving the permutation
+	 * @param random      the source of randomness
+	 */
+	public static void sample(int[] permutation, SplittableRandom random) {
+		for (int i = 0; i < permutation.length; i++) {
+			int j = random.nextInt(i + 1);
+			permutation[i] = permutation[j];
+			permutation[j] = i;
+		}
+	}
+
+	/***
+	 * Returns a uniform random permutation of the input.
+	 *
+	 * @param input  a list with the elements.
+	 * @param random the source of randomness
+	 */
+	public static <E> List<E> sample(List<E> input, SplittableRandom random) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		int[] permutation = new int[input.size()];
+		sample(permutation, random);
+		return select(input, permutation);
+	}
+
+	/***
+	 * A spliterator over the rank range {@code [origin, fence)}, which is split
+	 * in halves. The permutation of a range is seeded by unranking its origin
+	 * when the range is traversed first.
+	 */
+	static final class PermutationSpliterator<E> implements Spliterator<List<E>> {
+		private final List<E> list;
+		private long origin;
+		private final long fence;
+		private int[] permutation;
+
+		PermutationSpliterator(List<E> list, long origin, long fence) {
+			this.list = list;
+			this.origin = origin;
+			this.fence = fence;
+		}
+
+		private int[] permutation() {
+			if (permutation == null) {
+				permutation = new int[list.size()];
+				unrank(origin, permutation);
+			}
+			return permutation;
+		}
+
+		@Override
+		public boolean tryAdvance(Consumer<? super List<E>> action) {
+			if (origin >= fence)
+				return false;
+			int[] p = permutation();
+			action.accept(select(list, p));
+			origin += 1;
+			if (origin < fence)
+				next(p);
+			return true;
+		}
+
+		@Override
+		public void forEachRemaining(Consumer<? super List<E>> action) {
+			if (origin >= fence)
+				return;
+			int[] p = permutation();
+			while (true) {
+				action.accept(select(list, p));
+				origin += 1;
+				if (origin >= fence)
+					return;
+				next(p);
+			}
+		}
+
+		@Override
+		public Spliterator<List<E>> trySplit() {
+			long mid = origin + (fence - origin) / 2;
+			if (mid <= origin)
+				return null;
+			PermutationSpliterator<E> prefix = new PermutationSpliterator<>(list, origin, mid);
+			prefix.permutation = permutation;
+			permutation = null;
+			origin = mid;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return fence - origin;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED | Spliterator.NONNULL
+					| Spliterator.IMMUTABLE;
+		}
+	}
+}
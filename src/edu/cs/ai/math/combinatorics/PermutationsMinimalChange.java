@@ -0,0 +1,101 @@
+/**
+ *
+ */
+package edu.cs.ai.math.combinatorics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Enumerates all permutations in a minimal change order, i.e. two consecutive
+ * permutations differ by exactly one transposition. The implementation is the
+ * iterative version of Heap's algorithm and allocates nothing per permutation.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+public class PermutationsMinimalChange {
+
+	/***
+	 * Consumer for the permutations of a minimal change enumeration.
+	 */
+	@FunctionalInterface
+	public interface TranspositionConsumer {
+		/***
+		 * Visits a permutation.
+		 *
+		 * @param permutation the current permutation of the indices
+		 *                    {@code 0..n-1}. The array is reused and must not be
+		 *                    modified or retained.
+		 * @param i           the first position swapped to reach this permutation,
+		 *                    or {@code -1} for the first permutation
+		 * @param j           the second position swapped to reach this
+		 *                    permutation, or {@code -1} for the first permutation
+		 */
+		void accept(int[] permutation, int i, int j);
+	}
+
+	public static void main(String[] args) {
+		forEach(4, (p, i, j) -> System.out.println(Arrays.toString(p) + " (" + i + "," + j + ")"));
+	}
+
+	/***
+	 * Hands all permutations of the indices {@code 0..n-1} to {@code eater},
+	 * together with the transposition that leads from the previous permutation to
+	 * the current one.
+	 *
+	 * @param n     the number of indices
+	 * @param eater the consumer of the permutations
+	 */
+	public static void forEach(int n, TranspositionConsumer eater) {
+		if (n < 0)
+			throw new IllegalArgumentException();
+
+		int[] permutation = new int[n];
+		for (int i = 0; i < n; i++)
+			permutation[i] = i;
+		// c[i] is the loop counter of the i-th level of the recursive algorithm
+		int[] c = new int[n];
+
+		eater.accept(permutation, -1, -1);
+		int i = 1;
+		while (i < n) {
+			if (c[i] < i) {
+				int j = (i % 2 == 0) ? 0 : c[i];
+				int tmp = permutation[j];
+				permutation[j] = permutation[i];
+				permutation[i] = tmp;
+				eater.accept(permutation, j, i);
+				c[i] += 1;
+				i = 1;
+			} else {
+				c[i] = 0;
+				i += 1;
+			}
+		}
+	}
+
+	/***
+	 * Hands all permutations of {@code elements} to {@code eater}. The list given
+	 * to {@code eater} is an unmodifiable view, that is changed in place by one
+	 * transposition between two visits.
+	 *
+	 * @param elements the elements to permute
+	 * @param eater    the consumer of the permutations
+	 */
+	public static <T> void forEach(List<T> elements, Consumer<List<T>> eater) {
+		if (elements == null)
+			throw new IllegalArgumentException();
+
+		ArrayList<T> permutation = new ArrayList<>(elements);
+		List<T> view = Collections.unmodifiableList(permutation);
+		forEach(permutation.size(), (p, i, j) -> {
+			if (i >= 0)
+				Collections.swap(permutation, i, j);
+			eater.accept(view);
+		});
+	}
+}
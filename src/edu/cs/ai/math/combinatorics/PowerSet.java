@@ -3,13 +3,19 @@
  */
 package edu.cs.ai.math.combinatorics;
 
+import java.math.BigInteger;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -21,7 +27,8 @@ public class PowerSet {
 
 	/***
 	 * Constructs the powerset over the given collection. Note this operation really
-	 * constructs sets, notably it removes duplicates.
+	 * constructs sets, notably it removes duplicates. Use {@link #view(Collection)}
+	 * for a powerset that is not materialised.
 	 * 
 	 * @author Kai Sauerwald
 	 * @param set
@@ -41,6 +48,32 @@ public class PowerSet {
 		return result;
 	}
 
+	/***
+	 * Returns an unmodifiable view of the powerset over the given collection,
+	 * which represents every subset by a bitmask. Like
+	 * {@link #construct(Collection)} it removes duplicates, but it takes only
+	 * memory linear in the size of the collection.
+	 * 
+	 * @param set
+	 * @return The set of all subsets
+	 */
+	public static <E> Set<Set<E>> view(Collection<E> set) {
+		return new BitmaskPowerSet<>(set);
+	}
+
+	/***
+	 * The number of subsets enumerated by {@link #iterator(Collection)} and
+	 * constructed by {@link #construct(Collection)}, i.e. {@code 2^m} for the
+	 * number {@code m} of distinct elements of {@code input}.
+	 * 
+	 * @param input a collection with the elements.
+	 */
+	public static <E> BigInteger count(Collection<E> input) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		return BigInteger.ONE.shiftLeft(new HashSet<>(input).size());
+	}
+
 	/**
 	 * Returns a {@code Stream} of all Subsets of the input collection
 	 * 
@@ -51,69 +84,222 @@ public class PowerSet {
 		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(itr, Spliterator.IMMUTABLE), false);
 	}
 
+	/**
+	 * Returns a {@code Stream} of all subsets of the input collection, which
+	 * satisfy a downward-closed predicate, see
+	 * {@link #iterator(Collection, Predicate)}.
+	 * 
+	 * @author Kai Sauerwald.
+	 */
+	public static <E> Stream<Set<E>> stream(Collection<E> input, Predicate<? super Set<E>> downwardClosed) {
+		Iterator<Set<E>> itr = iterator(input, downwardClosed);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(itr, Spliterator.IMMUTABLE), false);
+	}
+
 	/***
-	 * Returns an iterator, that allows iteration of all elements of the powerset.
+	 * Returns an iterator over all subsets of the input, which satisfy the
+	 * predicate. The predicate has to be downward-closed: if it fails for a set,
+	 * it fails for all supersets. The subsets are searched depth first, where a
+	 * subset is extended only by elements after its last element, and a subtree
+	 * is skipped as soon as its root fails. Hence the work is proportional to the
+	 * number of accepted subsets times the size of the input, and only the path
+	 * to the current subset is kept.
 	 * 
-	 * @author Kai Sauerwald
-	 * @param input a collection with the elements.
+	 * @param input          a collection with the elements.
+	 * @param downwardClosed the predicate, which is given a read-only view of the
+	 *                       candidate subset
 	 */
-	public static <E> Iterator<Set<E>> iterator(Collection<E> input) {
-		if (input == null)
+	public static <E> Iterator<Set<E>> iterator(Collection<E> input, Predicate<? super Set<E>> downwardClosed) {
+		if (input == null || downwardClosed == null)
 			throw new IllegalArgumentException();
 
-		// This iterator, implements the same loop as the construct method
+		List<E> elements = new ArrayList<>(new LinkedHashSet<>(input));
+		int n = elements.size();
+
 		return new Iterator<Set<E>>() {
-			private Set<Set<E>> resultMem = null;
-			private Set<Set<E>> previousResultMem = null;
-			private final Iterator<E> baseItr = new HashSet<>(input).iterator();
-			private E element = null;
-			private Iterator<Set<E>> curItr = null;
-
-			/*
-			 * (non-Javadoc)
-			 * 
-			 * @see java.util.Iterator#hasNext()
-			 */
+			private final HashSet<E> current = new HashSet<>();
+			private final Set<E> view = Collections.unmodifiableSet(current);
+			// the positions of the current subset are pos[0..depth-1]
+			private final int[] pos = new int[n];
+			private int depth = 0;
+			private boolean hasnext = downwardClosed.test(view);
+
 			@Override
 			public boolean hasNext() {
-				return resultMem == null || baseItr.hasNext() || (curItr == null ? false : curItr.hasNext());
+				return hasnext;
 			}
 
-			/*
-			 * (non-Javadoc)
-			 * 
-			 * @see java.util.Iterator#next()
-			 */
 			@Override
 			public Set<E> next() {
-				Set<E> returnV;
-				// resultMem == null marks the situation of the empty set
-				if (resultMem == null) {
-					resultMem = new HashSet<>();
-					returnV = new HashSet<E>();
-					resultMem.add(returnV);
-					return returnV;
-				}
-				// curItr == null is the beginning of a new loop pass.
-				if (curItr == null) {
-					if (!baseItr.hasNext()) // if baseItr.hasNext() == false, then we added all elements from the source
-											// collection.
-						throw new NoSuchElementException();
-					element = baseItr.next();
-					previousResultMem = new HashSet<>(resultMem);
-					curItr = previousResultMem.iterator();
+				if (!hasNext())
+					throw new NoSuchElementException();
+
+				Set<E> result = new HashSet<>(current);
+				hasnext = advance();
+				return result;
+			}
+
+			/***
+			 * Moves to the next accepted subset in depth first order.
+			 */
+			private boolean advance() {
+				// the first candidate extends the current subset
+				int j = depth == 0 ? 0 : pos[depth - 1] + 1;
+				while (true) {
+					if (j < n) {
+						E e = elements.get(j);
+						current.add(e);
+						if (downwardClosed.test(view)) {
+							pos[depth++] = j;
+							return true;
+						}
+						current.remove(e);
+						j += 1;
+					} else {
+						// backtrack and try the next sibling
+						if (depth == 0)
+							return false;
+						depth -= 1;
+						current.remove(elements.get(pos[depth]));
+						j = pos[depth] + 1;
+					}
 				}
+			}
+		};
+	}
 
-				Set<E> newSubSet = new HashSet<E>(curItr.next());
-				newSubSet.add(element);
-				resultMem.add(newSubSet);
+	/***
+	 * Returns an iterator, that allows iteration of all elements of the powerset.
+	 * The subsets are visited in binary reflected Gray code order, see
+	 * {@link #grayCodeIterator(Collection)}.
+	 * 
+	 * @author Kai Sauerwald
+	 * @param input a collection with the elements.
+	 */
+	public static <E> Iterator<Set<E>> iterator(Collection<E> input) {
+		return grayCodeIterator(input);
+	}
 
-				if (!curItr.hasNext())
-					curItr = null;
+	/***
+	 * Returns an iterator over the powerset in binary reflected Gray code order,
+	 * i.e. two consecutive subsets differ by exactly one element. The iterator
+	 * keeps only state linear in the size of the input.
+	 * 
+	 * @param input a collection with the elements.
+	 */
+	public static <E> GrayCodeIterator<E> grayCodeIterator(Collection<E> input) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		return new GrayCodeIterator<>(new ArrayList<>(new LinkedHashSet<>(input)));
+	}
 
-				return newSubSet;
+	/***
+	 * Hands all subsets of the input in binary reflected Gray code order to
+	 * {@code eater}, together with the element that was added or removed. The set
+	 * given to {@code eater} is a read-only view, that changes in place between
+	 * two visits.
+	 * 
+	 * @param input a collection with the elements.
+	 * @param eater the consumer of the subsets
+	 */
+	public static <E> void forEach(Collection<E> input, ToggleConsumer<E> eater) {
+		GrayCodeIterator<E> itr = grayCodeIterator(input);
+		Set<E> view = Collections.unmodifiableSet(itr.current);
+		while (itr.hasNext()) {
+			itr.advance();
+			eater.accept(view, itr.getChanged(), itr.wasAdded());
+		}
+	}
 
+	/***
+	 * Consumer for the subsets of a Gray code enumeration.
+	 */
+	@FunctionalInterface
+	public interface ToggleConsumer<E> {
+		/***
+		 * Visits a subset.
+		 * 
+		 * @param subset  the current subset
+		 * @param element the element added or removed to reach this subset, or
+		 *                {@code null} for the empty set at the beginning
+		 * @param added   true, if {@code element} was added
+		 */
+		void accept(Set<E> subset, E element, boolean added);
+	}
+
+	/***
+	 * Iterator over the powerset in binary reflected Gray code order. It
+	 * implements the loopless Gray binary generation of Knuth (Algorithm L) with
+	 * focus pointers, so it needs no counter of the visited subsets.
+	 */
+	public static final class GrayCodeIterator<E> implements Iterator<Set<E>> {
+		private final List<E> elements;
+		private final boolean[] a;
+		private final int[] f;
+		private final HashSet<E> current = new HashSet<>();
+		private boolean started = false;
+		private boolean hasnext = true;
+		private E changed = null;
+		private boolean added = false;
+
+		GrayCodeIterator(List<E> elements) {
+			this.elements = elements;
+			int n = elements.size();
+			// L1 [Initialize.]
+			this.a = new boolean[n];
+			this.f = new int[n + 1];
+			for (int j = 0; j <= n; j++)
+				f[j] = j;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return hasnext;
+		}
+
+		@Override
+		public Set<E> next() {
+			advance();
+			return new HashSet<>(current);
+		}
+
+		private void advance() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+
+			if (started) {
+				// L4 [Complement coordinate j.]
+				int j = f[0];
+				f[0] = 0;
+				f[j] = f[j + 1];
+				f[j + 1] = j + 1;
+				a[j] = !a[j];
+				changed = elements.get(j);
+				added = a[j];
+				if (added)
+					current.add(changed);
+				else
+					current.remove(changed);
 			}
-		};
+			started = true;
+
+			// L3 [Choose j.] The visit is done, when the next j is n.
+			hasnext = f[0] < elements.size();
+		}
+
+		/***
+		 * The element that was added or removed by the last call of
+		 * {@link #next()}, or {@code null} for the empty set at the beginning.
+		 */
+		public E getChanged() {
+			return changed;
+		}
+
+		/***
+		 * True, if the last call of {@link #next()} added {@link #getChanged()}.
+		 */
+		public boolean wasAdded() {
+			return added;
+		}
 	}
 }
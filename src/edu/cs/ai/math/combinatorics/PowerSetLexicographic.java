@@ -3,13 +3,19 @@
  */
 package edu.cs.ai.math.combinatorics;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -19,6 +25,12 @@ import java.util.stream.StreamSupport;
  */
 public class PowerSetLexicographic {
 
+	/**
+	 * The largest number of elements, such that all ranks fit into a
+	 * {@code long}.
+	 */
+	static final int MAX_RANKED_SIZE = 62;
+
 	public static void main(String[] args) {
 		ArrayList<Integer> fuenf = new ArrayList<>(50);
 		for (int i = 1; i <= 5; i++) {
@@ -31,18 +43,189 @@ public class PowerSetLexicographic {
 	}
 
 	/**
-	 * Returns a {@code Stream} of all Subsets of the input collection
+	 * Returns a {@code Stream} of all subsets of the input collection, which
+	 * satisfy a downward-closed predicate, see {@link #iterator(List, Predicate)}.
 	 * 
 	 * @author Kai Sauerwald.
 	 */
-	public static <E> Stream<Set<E>> stream(List<E> input) {
-		Iterator<Set<E>> itr = iterator(input);
+	public static <E> Stream<Set<E>> stream(List<E> input, Predicate<? super Set<E>> downwardClosed) {
+		Iterator<Set<E>> itr = iterator(input, downwardClosed);
 		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(itr, Spliterator.IMMUTABLE), false);
 	}
 
+	/***
+	 * Returns an iterator over all subsets of the input in the order of
+	 * {@link #iterator(List)}, which satisfy the predicate. The predicate has to
+	 * be downward-closed: if it fails for a set, it fails for all supersets. The
+	 * (k+1)-subsets are only generated by extending the accepted k-subsets by a
+	 * later element, so every rejected subset prunes all its supersets. A
+	 * candidate is only copied if it is accepted.
+	 * 
+	 * The time is proportional to the number of accepted subsets times the size
+	 * of the input, but the memory is not: all accepted subsets of the previous
+	 * and the current layer are kept, which are up to {@code C(n,n/2)} subsets
+	 * for a predicate that accepts almost everything. If the order does not
+	 * matter, {@link PowerSet#iterator(java.util.Collection, Predicate)} keeps
+	 * only the current subset.
+	 * 
+	 * @param input          a collection with the elements.
+	 * @param downwardClosed the predicate, which is given a read-only view of the
+	 *                       candidate subset
+	 */
+	public static <E> Iterator<Set<E>> iterator(List<E> input, Predicate<? super Set<E>> downwardClosed) {
+		if (input == null || downwardClosed == null)
+			throw new IllegalArgumentException();
+
+		return new Iterator<Set<E>>() {
+			private final List<E> list = Collections.unmodifiableList(input);
+			private final int n = input.size();
+			private final SubsetView<E> view = new SubsetView<>(list, n);
+			// The accepted subsets of the previous and the current layer
+			private List<int[]> previous = new ArrayList<>();
+			private List<int[]> layer = new ArrayList<>();
+			private int k = 0;
+			private int parent = 0;
+			private int candidate = 0;
+			private int[] next = null;
+
+			{
+				int[] empty = new int[0];
+				view.assign(empty, 0);
+				if (downwardClosed.test(view)) {
+					next = empty;
+					previous.add(empty);
+					k = 1;
+				}
+			}
+
+			@Override
+			public boolean hasNext() {
+				return next != null;
+			}
+
+			@Override
+			public Set<E> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+
+				Set<E> result = new HashSet<>();
+				for (int ipos : next)
+					result.add(list.get(ipos));
+				next = advance();
+				return result;
+			}
+
+			/***
+			 * Searches the next accepted k-subset, which extends an accepted
+			 * (k-1)-subset.
+			 */
+			private int[] advance() {
+				while (true) {
+					if (parent >= previous.size()) {
+						if (layer.isEmpty())
+							return null;
+						previous = layer;
+						layer = new ArrayList<>();
+						parent = 0;
+						k += 1;
+					}
+					int[] prefix = previous.get(parent);
+					if (candidate <= (k == 1 ? -1 : prefix[k - 2]))
+						candidate = k == 1 ? 0 : prefix[k - 2] + 1;
+					if (candidate >= n) {
+						parent += 1;
+						candidate = 0;
+						continue;
+					}
+
+					int last = candidate++;
+					view.assign(prefix, k - 1, last);
+					if (downwardClosed.test(view)) {
+						int[] subset = Arrays.copyOf(prefix, k);
+						subset[k - 1] = last;
+						layer.add(subset);
+						return subset;
+					}
+				}
+			}
+		};
+	}
+
+	/***
+	 * Returns an iterator over the same subsets as {@link #iterator(List)}, which
+	 * returns the same read-only view for every subset and updates it in place.
+	 * Hence no object is allocated per subset. Use {@link SubsetView#snapshot()}
+	 * to retain a subset.
+	 * 
+	 * @param input a collection with the elements.
+	 */
+	public static <E> Iterator<SubsetView<E>> reusingIterator(List<E> input) {
+		if (input == null)
+			throw new IllegalArgumentException();
+
+		return new Iterator<SubsetView<E>>() {
+			private final int n = input.size();
+			private int k = 0;
+			// the positions of the current k-subset are pos[0..k-1]
+			private final int[] pos = new int[n];
+			private final SubsetView<E> view = new SubsetView<>(Collections.unmodifiableList(input), n);
+
+			@Override
+			public boolean hasNext() {
+				return k >= 0;
+			}
+
+			@Override
+			public SubsetView<E> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+
+				view.assign(pos, k);
+				k = PowerSetLexicographic.next(n, pos, k);
+				return view;
+			}
+		};
+	}
+
+	/***
+	 * The number of subsets enumerated by {@link #iterator(List)}, i.e.
+	 * {@code 2^input.size()}.
+	 * 
+	 * @param input a collection with the elements.
+	 */
+	public static <E> BigInteger count(List<E> input) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		return BigInteger.ONE.shiftLeft(input.size());
+	}
+
+	/**
+	 * Returns a {@code Stream} of all Subsets of the input collection. For at most
+	 * {@value #MAX_RANKED_SIZE} elements the stream is sized and splits its rank
+	 * range, preferably at the border of two layers, so it is suited for parallel
+	 * processing.
+	 * 
+	 * @author Kai Sauerwald.
+	 */
+	public static <E> Stream<Set<E>> stream(List<E> input) {
+		if (input == null)
+			throw new IllegalArgumentException();
+		if (input.size() > MAX_RANKED_SIZE) {
+			// Ordered like the sized stream, also when run in parallel
+			Iterator<Set<E>> itr = iterator(input);
+			return StreamSupport.stream(
+					Spliterators.spliteratorUnknownSize(itr, Spliterator.ORDERED | Spliterator.IMMUTABLE), false);
+		}
+		List<E> list = new ArrayList<>(input);
+		boolean distinct = new HashSet<>(list).size() == list.size();
+		return StreamSupport.stream(new PowerSetSpliterator<>(list, 0L, 1L << list.size(), distinct), false);
+	}
+
 	/***
 	 * Returns an iterator, that allows iteration of all elements of the powerset,
-	 * respecting the lexicographic order given by the input list
+	 * respecting the lexicographic order given by the input list. The subsets are
+	 * ordered by their size first (banker's order), and the enumeration moves from
+	 * one layer to the next without any reinitialisation.
 	 * 
 	 * @author Kai Sauerwald
 	 * @param input a collection with the elements.
@@ -51,49 +234,154 @@ public class PowerSetLexicographic {
 		if (input == null)
 			throw new IllegalArgumentException();
 
-		// This iterator, implements the same loop as the construct method
 		return new Iterator<Set<E>>() {
-			private int k = -1;
-			boolean hasnext = true;
-			private Iterator<Set<E>> current = null;
-			private List<E> list = input;
-
-			/*
-			 * (non-Javadoc)
-			 * 
-			 * @see java.util.Iterator#hasNext()
-			 */
+			private final List<E> list = new ArrayList<>(input);
+			private final int n = list.size();
+			// the positions of the current k-subset are pos[0..k-1]
+			private final int[] pos = new int[n];
+			private int k = 0;
+
 			@Override
 			public boolean hasNext() {
-				return hasnext;
+				return k >= 0;
 			}
 
-			/*
-			 * (non-Javadoc)
-			 * 
-			 * @see java.util.Iterator#next()
-			 */
 			@Override
 			public Set<E> next() {
 				if (!hasNext())
 					throw new NoSuchElementException();
 
-				if (current == null || !current.hasNext()) {
+				Set<E> result = subset(list, pos, k);
+				k = PowerSetLexicographic.next(n, pos, k);
+				return result;
+			}
+		};
+	}
+
+	/***
+	 * Moves the subset {@code pos[0..k-1]} of {@code 0..n-1} to its successor in
+	 * the order of {@link #iterator(List)}: the lexicographically next k-subset,
+	 * or the first (k+1)-subset after the last k-subset.
+	 * 
+	 * @return the size of the successor, or {@code -1} if there is none
+	 */
+	static int next(int n, int[] pos, int k) {
+		if (KCombinationLexicographic.next(n, pos, k))
+			return k;
+		if (k >= n)
+			return -1;
+		for (int i = 0; i <= k; i++)
+			pos[i] = i;
+		return k + 1;
+	}
+
+	private static <E> Set<E> subset(List<E> list, int[] pos, int k) {
+		HashSet<E> set = new HashSet<>();
+		for (int i = 0; i < k; i++)
+			set.add(list.get(pos[i]));
+		return set;
+	}
+
+	/***
+	 * A spliterator over the range {@code [origin, fence)} of ranks in the order
+	 * of {@link #iterator(List)}, where the subsets of size {@code k} take the
+	 * ranks from {@code C(n,0)+...+C(n,k-1)} on. A range is split at a layer
+	 * border near its middle if there is one, and in halves otherwise. The subset
+	 * of a range is seeded by unranking its origin within its layer when the range
+	 * is traversed first.
+	 */
+	static final class PowerSetSpliterator<E> implements Spliterator<Set<E>> {
+		private final List<E> list;
+		private long origin;
+		private final long fence;
+		private final boolean distinct;
+		private int[] pos;
+		private int k;
+
+		PowerSetSpliterator(List<E> list, long origin, long fence, boolean distinct) {
+			this.list = list;
+			this.origin = origin;
+			this.fence = fence;
+			this.distinct = distinct;
+		}
+
+		private int[] pos() {
+			if (pos == null) {
+				int n = list.size();
+				long offset = 0L;
+				k = 0;
+				while (origin - offset >= CombinatorialNumbers.binomialLong(n, k)) {
+					offset += CombinatorialNumbers.binomialLong(n, k);
 					k += 1;
-					current = KCombinationLexicographic.iterator(list, k);
 				}
+				int[] head = new int[k];
+				KCombinationLexicographic.unrank(n, origin - offset, head);
+				pos = Arrays.copyOf(head, n);
+			}
+			return pos;
+		}
 
-				Set<E> result = current.next();
+		@Override
+		public boolean tryAdvance(Consumer<? super Set<E>> action) {
+			if (origin >= fence)
+				return false;
+			int[] p = pos();
+			action.accept(subset(list, p, k));
+			origin += 1;
+			if (origin < fence)
+				k = next(list.size(), p, k);
+			return true;
+		}
 
-				if (k >= list.size() && !current.hasNext()) {
-					hasnext = false;
-					list = null;
-					current = null;
-				}
+		@Override
+		public void forEachRemaining(Consumer<? super Set<E>> action) {
+			if (origin >= fence)
+				return;
+			int[] p = pos();
+			while (true) {
+				action.accept(subset(list, p, k));
+				origin += 1;
+				if (origin >= fence)
+					return;
+				k = next(list.size(), p, k);
+			}
+		}
 
-				return result;
+		@Override
+		public Spliterator<Set<E>> trySplit() {
+			long size = fence - origin;
+			long mid = origin + size / 2;
+			if (mid <= origin)
+				return null;
 
+			// Prefer the layer border closest to the middle, if it is in the middle half
+			long distance = size / 4 + 1;
+			long border = 0L;
+			for (int j = 0; j <= list.size() && border < fence; j++) {
+				if (border > origin && Math.abs(border - origin - size / 2) < distance) {
+					distance = Math.abs(border - origin - size / 2);
+					mid = border;
+				}
+				border += CombinatorialNumbers.binomialLong(list.size(), j);
 			}
-		};
+
+			PowerSetSpliterator<E> prefix = new PowerSetSpliterator<>(list, origin, mid, distinct);
+			prefix.pos = pos;
+			prefix.k = k;
+			pos = null;
+			origin = mid;
+			return prefix;
+		}
+
+		@Override
+		public long estimateSize() {
+			return fence - origin;
+		}
+
+		@Override
+		public int characteristics() {
+			return Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED | Spliterator.NONNULL
+					| Spliterator.IMMUTABLE | (distinct ? Spliterator.DISTINCT : 0);
+		}
 	}
 }
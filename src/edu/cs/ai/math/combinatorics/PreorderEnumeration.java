@@ -0,0 +1,497 @@
+/**
+ *
+ */
+package edu.cs.ai.math.combinatorics;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Enumerates all total preorders (weak orders, ordered set partitions) over
+ * {@code size} elements. A total preorder is encoded as a layer vector
+ * {@code a}, where {@code a[i]} is the layer of the element {@code i}. The
+ * layers are numbered from {@code 0} to {@code m-1} and none of them is empty,
+ * i.e. the layer vectors are exactly the surjections onto {@code {0,..,m-1}}.
+ *
+ * The layer vectors are visited ordered by the number of layers, and
+ * lexicographically for a fixed number of layers. Every total preorder is
+ * visited exactly once.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+public class PreorderEnumeration {
+
+	public static void main(String[] args) {
+		iterator(3).forEachRemaining(System.out::println);
+	}
+
+	/***
+	 * The number of layer vectors enumerated by {@link #iterator(int)}, i.e. the
+	 * Fubini number of {@code size}.
+	 * 
+	 * @param size the number of elements
+	 */
+	public static BigInteger count(int size) {
+		if (size < 0)
+			throw new IllegalArgumentException();
+		return CombinatorialNumbers.fubini(size);
+	}
+
+	/**
+	 * Returns a {@code Stream} of all layer vectors of total preorders over
+	 * {@code size} elements
+	 *
+	 * @author Kai Sauerwald.
+	 */
+	public static Stream<List<Integer>> stream(int size) {
+		Iterator<List<Integer>> itr = iterator(size);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(itr, Spliterator.IMMUTABLE), false);
+	}
+
+	/***
+	 * Returns an iterator, that allows iteration of all layer vectors of total
+	 * preorders over {@code size} elements.
+	 *
+	 * @author Kai Sauerwald
+	 * @param size the number of elements
+	 */
+	public static Iterator<List<Integer>> iterator(int size) {
+		if (size < 0)
+			throw new IllegalArgumentException();
+		return iterator(new Cursor(size));
+	}
+
+	/***
+	 * Returns an iterator, that starts at the layer vector with the given rank
+	 * and visits all following layer vectors.
+	 *
+	 * @param size the number of elements
+	 * @param rank the rank of the first layer vector, see {@link #rank(int[])}
+	 */
+	public static Iterator<List<Integer>> iterator(int size, long rank) {
+		if (size < 0)
+			throw new IllegalArgumentException();
+		int[] code = new int[size];
+		unrank(rank, code);
+		Cursor cursor = new Cursor(size);
+		cursor.set(code);
+		return iterator(cursor);
+	}
+
+	/***
+	 * Returns an iterator, that starts at the layer vector with the given rank
+	 * and visits all following layer vectors, for any number of total preorders.
+	 *
+	 * @param size the number of elements
+	 * @param rank the rank of the first layer vector, see {@link #bigRank(int[])}
+	 */
+	public static Iterator<List<Integer>> iterator(int size, BigInteger rank) {
+		if (size < 0)
+			throw new IllegalArgumentException();
+		int[] code = new int[size];
+		unrank(rank, code);
+		Cursor cursor = new Cursor(size);
+		cursor.set(code);
+		return iterator(cursor);
+	}
+
+	private static Iterator<List<Integer>> iterator(Cursor start) {
+		return new Iterator<List<Integer>>() {
+			private final Cursor cursor = start;
+			private boolean hasnext = true;
+
+			@Override
+			public boolean hasNext() {
+				return hasnext;
+			}
+
+			@Override
+			public List<Integer> next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+
+				int[] code = cursor.current();
+				ArrayList<Integer> result = new ArrayList<>(code.length);
+				for (int i = 0; i < code.length; i++)
+					result.add(code[i]);
+
+				hasnext = cursor.advance();
+				return result;
+			}
+		};
+	}
+
+	/***
+	 * Hands every layer vector of a total preorder over {@code size} elements to
+	 * {@code eater}. The array given to {@code eater} is reused for all visits
+	 * and must not be modified or retained.
+	 *
+	 * @param size  the number of elements
+	 * @param eater the consumer of the layer vectors
+	 */
+	public static void forEach(int size, Consumer<int[]> eater) {
+		if (size < 0)
+			throw new IllegalArgumentException();
+
+		Cursor cursor = new Cursor(size);
+		do {
+			eater.accept(cursor.current());
+		} while (cursor.advance());
+	}
+
+	/***
+	 * Computes the rank of a layer vector in the order of {@link #iterator(int)}.
+	 * The layer vectors with less layers come first, which are counted by
+	 * {@code j! S(n,j)}, followed by the lexicographic rank among the layer
+	 * vectors with the same number of layers.
+	 *
+	 * @param code the layer vector
+	 * @throws ArithmeticException if the number of total preorders does not fit
+	 *                             into a {@code long}, see
+	 *                             {@link #bigRank(int[])}
+	 */
+	public static long rank(int[] code) {
+		int n = code.length;
+		CombinatorialNumbers.fubiniLong(n);
+		int m = layers(code);
+		if (n == 0)
+			return 0L;
+
+		long rank = 0L;
+		for (int j = 1; j < m; j++)
+			rank += CombinatorialNumbers.factorialLong(j) * CombinatorialNumbers.stirling2Long(n, j);
+
+		long[][] covering = coverings(n, m);
+		boolean[] covered = new boolean[m];
+		int c = 0;
+		for (int i = 0; i < n; i++) {
+			int r = n - 1 - i;
+			// The smaller values at position i
+			for (int v = 0; v < code[i]; v++)
+				rank += covering[r][m - c - (covered[v] ? 0 : 1)];
+			if (!covered[code[i]]) {
+				covered[code[i]] = true;
+				c += 1;
+			}
+		}
+		return rank;
+	}
+
+	/***
+	 * Writes the layer vector with the given rank into {@code code}.
+	 *
+	 * @param rank the rank, between {@code 0} and {@code a(n)-1} for the Fubini
+	 *             number {@code a(n)}
+	 * @param code the array receiving the layer vector
+	 * @throws ArithmeticException if the number of total preorders does not fit
+	 *                             into a {@code long}
+	 */
+	public static void unrank(long rank, int[] code) {
+		int n = code.length;
+		if (rank < 0L || rank >= CombinatorialNumbers.fubiniLong(n))
+			throw new IllegalArgumentException();
+		if (n == 0)
+			return;
+
+		int m = 1;
+		long layered;
+		while (rank >= (layered = CombinatorialNumbers.factorialLong(m) * CombinatorialNumbers.stirling2Long(n, m))) {
+			rank -= layered;
+			m += 1;
+		}
+
+		long[][] covering = coverings(n, m);
+		boolean[] covered = new boolean[m];
+		int c = 0;
+		for (int i = 0; i < n; i++) {
+			int r = n - 1 - i;
+			int v = 0;
+			while (true) {
+				int u = m - c - (covered[v] ? 0 : 1);
+				long block = u < 0 ? 0L : covering[r][u];
+				if (rank < block)
+					break;
+				rank -= block;
+				v += 1;
+			}
+			code[i] = v;
+			if (!covered[v]) {
+				covered[v] = true;
+				c += 1;
+			}
+		}
+	}
+
+	/***
+	 * Computes the rank of a layer vector like {@link #rank(int[])}, for any
+	 * number of total preorders.
+	 *
+	 * @param code the layer vector
+	 */
+	public static BigInteger bigRank(int[] code) {
+		int n = code.length;
+		int m = layers(code);
+		if (n == 0)
+			return BigInteger.ZERO;
+
+		BigInteger rank = BigInteger.ZERO;
+		for (int j = 1; j < m; j++)
+			rank = rank.add(CombinatorialNumbers.factorial(j).multiply(CombinatorialNumbers.stirling2(n, j)));
+
+		BigInteger[][] covering = bigCoverings(n, m);
+		boolean[] covered = new boolean[m];
+		int c = 0;
+		for (int i = 0; i < n; i++) {
+			int r = n - 1 - i;
+			for (int v = 0; v < code[i]; v++)
+				rank = rank.add(covering[r][m - c - (covered[v] ? 0 : 1)]);
+			if (!covered[code[i]]) {
+				covered[code[i]] = true;
+				c += 1;
+			}
+		}
+		return rank;
+	}
+
+	/***
+	 * Writes the layer vector with the given rank into {@code code}, like
+	 * {@link #unrank(long, int[])}, for any number of total preorders.
+	 *
+	 * @param rank the rank, between {@code 0} and {@code a(n)-1} for the Fubini
+	 *             number {@code a(n)}
+	 * @param code the array receiving the layer vector
+	 */
+	public static void unrank(BigInteger rank, int[] code) {
+		int n = code.length;
+		if (rank.signum() < 0 || rank.compareTo(CombinatorialNumbers.fubini(n)) >= 0)
+			throw new IllegalArgumentException();
+		if (n == 0)
+			return;
+
+		int m = 1;
+		BigInteger layered;
+		while (rank.compareTo(
+				layered = CombinatorialNumbers.factorial(m).multiply(CombinatorialNumbers.stirling2(n, m))) >= 0) {
+			rank = rank.subtract(layered);
+			m += 1;
+		}
+
+		BigInteger[][] covering = bigCoverings(n, m);
+		boolean[] covered = new boolean[m];
+		int c = 0;
+		for (int i = 0; i < n; i++) {
+			int r = n - 1 - i;
+			int v = 0;
+			while (true) {
+				int u = m - c - (covered[v] ? 0 : 1);
+				BigInteger block = u < 0 ? BigInteger.ZERO : covering[r][u];
+				if (rank.compareTo(block) < 0)
+					break;
+				rank = rank.subtract(block);
+				v += 1;
+			}
+			code[i] = v;
+			if (!covered[v]) {
+				covered[v] = true;
+				c += 1;
+			}
+		}
+	}
+
+	/***
+	 * Checks that {@code code} is a layer vector, and returns its number of
+	 * layers.
+	 */
+	private static int layers(int[] code) {
+		int n = code.length;
+		int m = 0;
+		for (int a : code) {
+			if (a < 0 || a >= n)
+				throw new IllegalArgumentException();
+			m = Math.max(m, a + 1);
+		}
+
+		boolean[] used = new boolean[m];
+		for (int a : code)
+			used[a] = true;
+		for (int j = 0; j < m; j++)
+			if (!used[j])
+				throw new IllegalArgumentException();
+		return m;
+	}
+
+	/***
+	 * {@code covering[r][u]} is the number of sequences of length {@code r} over
+	 * {@code m} layers, which use {@code u} given layers.
+	 */
+	private static long[][] coverings(int n, int m) {
+		long[][] covering = new long[n][m + 1];
+		covering[0][0] = 1L;
+		for (int r = 1; r < n; r++) {
+			covering[r][0] = m * covering[r - 1][0];
+			for (int u = 1; u <= m && u <= r; u++)
+				covering[r][u] = (m - u) * covering[r - 1][u] + u * covering[r - 1][u - 1];
+		}
+		return covering;
+	}
+
+	/***
+	 * The table of {@link #coverings(int, int)} as {@code BigInteger}.
+	 */
+	private static BigInteger[][] bigCoverings(int n, int m) {
+		BigInteger[][] covering = new BigInteger[n][m + 1];
+		for (BigInteger[] row : covering)
+			Arrays.fill(row, BigInteger.ZERO);
+		covering[0][0] = BigInteger.ONE;
+		for (int r = 1; r < n; r++) {
+			covering[r][0] = covering[r - 1][0].multiply(BigInteger.valueOf(m));
+			for (int u = 1; u <= m && u <= r; u++)
+				covering[r][u] = covering[r - 1][u].multiply(BigInteger.valueOf(m - u))
+						.add(covering[r - 1][u - 1].multiply(BigInteger.valueOf(u)));
+		}
+		return covering;
+	}
+
+	/***
+	 * Writes the layer vector of a uniform random total preorder into
+	 * {@code code}. The preorder is sampled in expected {@code O(n)} time without
+	 * enumeration, see {@link UrnSampling}.
+	 *
+	 * @param code   the array receiving the layer vector
+	 * @param random the source of randomness
+	 */
+	public static void sample(int[] code, SplittableRandom random) {
+		UrnSampling.samplePreorder(code, random);
+	}
+
+	/***
+	 * Returns the layer vector of a uniform random total preorder over
+	 * {@code size} elements.
+	 *
+	 * @param size   the number of elements
+	 * @param random the source of randomness
+	 */
+	public static List<Integer> sample(int size, SplittableRandom random) {
+		if (size < 0)
+			throw new IllegalArgumentException();
+		int[] code = new int[size];
+		sample(code, random);
+		ArrayList<Integer> result = new ArrayList<>(size);
+		for (int i = 0; i < size; i++)
+			result.add(code[i]);
+		return result;
+	}
+
+	/***
+	 * The state of the enumeration. For the layer vector {@code a} and the
+	 * number of layers {@code m} it keeps how often every layer is used by
+	 * {@code a}, so a position can only be increased as long as the remaining
+	 * positions are able to fill every empty layer.
+	 */
+	static final class Cursor {
+		final int n;
+		final int[] a;
+		final int[] count;
+		int m;
+		// Number of layers in 0..m-1 not used by a.
+		int missing;
+
+		Cursor(int n) {
+			this.n = n;
+			this.a = new int[n];
+			this.count = new int[n + 1];
+			this.m = n == 0 ? 0 : 1;
+			this.missing = m;
+			fill(0);
+		}
+
+		int[] current() {
+			return a;
+		}
+
+		/***
+		 * Moves to the given layer vector.
+		 */
+		void set(int[] code) {
+			System.arraycopy(code, 0, a, 0, n);
+			m = 0;
+			for (int v = 0; v <= n; v++)
+				count[v] = 0;
+			for (int j = 0; j < n; j++) {
+				count[a[j]]++;
+				m = Math.max(m, a[j] + 1);
+			}
+			missing = 0;
+		}
+
+		/***
+		 * Fills the positions {@code from..n-1} with the lexicographically smallest
+		 * completion, such that every layer is used.
+		 */
+		void fill(int from) {
+			int layer = 0;
+			for (int j = from; j < n; j++) {
+				int v;
+				if (n - j > missing)
+					v = 0;
+				else {
+					while (count[layer] > 0)
+						layer++;
+					v = layer;
+				}
+				if (count[v] == 0)
+					missing--;
+				count[v]++;
+				a[j] = v;
+			}
+		}
+
+		/***
+		 * Moves to the next layer vector.
+		 *
+		 * @return false, if there is no next layer vector
+		 */
+		boolean advance() {
+			for (int i = n - 1; i >= 0; i--) {
+				int old = a[i];
+				count[old]--;
+				if (count[old] == 0)
+					missing++;
+
+				// the positions i+1..n-1 are able to fill n-1-i empty layers
+				for (int v = old + 1; v < m; v++) {
+					int afterwards = missing - (count[v] == 0 ? 1 : 0);
+					if (afterwards <= n - 1 - i) {
+						if (count[v] == 0)
+							missing--;
+						count[v]++;
+						a[i] = v;
+						fill(i + 1);
+						return true;
+					}
+				}
+			}
+
+			// All layer vectors with m layers are visited
+			if (m >= n)
+				return false;
+			m++;
+			missing = m;
+			for (int v = 0; v <= n; v++)
+				count[v] = 0;
+			fill(0);
+			return true;
+		}
+	}
+}
@@ -0,0 +1,304 @@
+/**
+ *
+ */
+package edu.cs.ai.math.combinatorics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Transforms of functions on the powerset of an {@code n}-element base. A
+ * function is given as an array of length {@code 2^n}, where the subset with
+ * mask {@code S} is at index {@code S}, i.e. with the indexing of
+ * {@link BitmaskPowerSet} and {@link PowerSet#view(java.util.Collection)}.
+ *
+ * The zeta transform sums a function over all subsets, the Moebius transform is
+ * its inverse. Both work in place with {@code n} passes over the array, so they
+ * take {@code O(n 2^n)} instead of the {@code O(3^n)} of summing over all
+ * pairs of subsets. Within a pass all updates are independent, hence the
+ * passes can be run in parallel.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+public final class SubsetTransforms {
+
+	/**
+	 * The largest base, such that a function on its powerset fits into an array.
+	 */
+	static final int MAX_SIZE = 30;
+
+	private SubsetTransforms() {
+	}
+
+	public static void main(String[] args) {
+		BitmaskPowerSet<Integer> powerSet = new BitmaskPowerSet<>(List.of(1, 2, 3));
+		long[] f = tabulate(powerSet, s -> s.stream().mapToLong(Integer::longValue).sum());
+		System.out.println(Arrays.toString(f));
+		zeta(f);
+		System.out.println(Arrays.toString(f));
+		moebius(f);
+		System.out.println(Arrays.toString(f));
+		long[] ones = new long[8];
+		Arrays.fill(ones, 1L);
+		System.out.println(Arrays.toString(convolution(ones, ones)));
+	}
+
+	/***
+	 * The table of {@code f} on all subsets of the base of {@code powerSet},
+	 * indexed by their masks.
+	 */
+	public static <E> long[] tabulate(BitmaskPowerSet<E> powerSet, ToLongFunction<? super Set<E>> f) {
+		long[] table = new long[1 << dimension(powerSet)];
+		for (int mask = 0; mask < table.length; mask++)
+			table[mask] = f.applyAsLong(powerSet.subset(mask));
+		return table;
+	}
+
+	/***
+	 * The table of {@code f} on all subsets of the base of {@code powerSet},
+	 * indexed by their masks.
+	 */
+	public static <E> double[] tabulateDouble(BitmaskPowerSet<E> powerSet, ToDoubleFunction<? super Set<E>> f) {
+		double[] table = new double[1 << dimension(powerSet)];
+		for (int mask = 0; mask < table.length; mask++)
+			table[mask] = f.applyAsDouble(powerSet.subset(mask));
+		return table;
+	}
+
+	/***
+	 * Replaces {@code f} by its zeta transform, i.e. {@code f[S]} by the sum of
+	 * {@code f[T]} over all {@code T} subset of {@code S}.
+	 *
+	 * @throws IllegalArgumentException if the length of {@code f} is no power of
+	 *                                  two
+	 */
+	public static void zeta(long[] f) {
+		zeta(f, false);
+	}
+
+	/***
+	 * Replaces {@code f} by its zeta transform, see {@link #zeta(long[])}.
+	 *
+	 * @param parallel whether every pass is split among the common pool
+	 */
+	public static void zeta(long[] f, boolean parallel) {
+		int n = dimension(f.length);
+		for (int i = 0; i < n; i++) {
+			int bit = 1 << i;
+			forEachPair(f.length, i, parallel, low -> f[low | bit] += f[low]);
+		}
+	}
+
+	/***
+	 * Replaces {@code f} by its Moebius transform, the inverse of
+	 * {@link #zeta(long[])}, i.e. {@code f[S]} by the sum of
+	 * {@code (-1)^|S\T| f[T]} over all {@code T} subset of {@code S}.
+	 *
+	 * @throws IllegalArgumentException if the length of {@code f} is no power of
+	 *                                  two
+	 */
+	public static void moebius(long[] f) {
+		moebius(f, false);
+	}
+
+	/***
+	 * Replaces {@code f} by its Moebius transform, see {@link #moebius(long[])}.
+	 *
+	 * @param parallel whether every pass is split among the common pool
+	 */
+	public static void moebius(long[] f, boolean parallel) {
+		int n = dimension(f.length);
+		for (int i = 0; i < n; i++) {
+			int bit = 1 << i;
+			forEachPair(f.length, i, parallel, low -> f[low | bit] -= f[low]);
+		}
+	}
+
+	/***
+	 * Replaces {@code f} by its zeta transform, see {@link #zeta(long[])}.
+	 */
+	public static void zeta(double[] f) {
+		zeta(f, false);
+	}
+
+	/***
+	 * Replaces {@code f} by its zeta transform, see {@link #zeta(long[])}.
+	 *
+	 * @param parallel whether every pass is split among the common pool
+	 */
+	public static void zeta(double[] f, boolean parallel) {
+		int n = dimension(f.length);
+		for (int i = 0; i < n; i++) {
+			int bit = 1 << i;
+			forEachPair(f.length, i, parallel, low -> f[low | bit] += f[low]);
+		}
+	}
+
+	/***
+	 * Replaces {@code f} by its Moebius transform, see {@link #moebius(long[])}.
+	 */
+	public static void moebius(double[] f) {
+		moebius(f, false);
+	}
+
+	/***
+	 * Replaces {@code f} by its Moebius transform, see {@link #moebius(long[])}.
+	 *
+	 * @param parallel whether every pass is split among the common pool
+	 */
+	public static void moebius(double[] f, boolean parallel) {
+		int n = dimension(f.length);
+		for (int i = 0; i < n; i++) {
+			int bit = 1 << i;
+			forEachPair(f.length, i, parallel, low -> f[low | bit] -= f[low]);
+		}
+	}
+
+	/***
+	 * The subset convolution of {@code f} and {@code g}, i.e. the function
+	 * mapping {@code S} to the sum of {@code f[T] g[S\T]} over all {@code T}
+	 * subset of {@code S}. It is computed by ranked zeta transforms in
+	 * {@code O(n^2 2^n)}.
+	 *
+	 * @throws IllegalArgumentException if the arrays differ in length or their
+	 *                                  length is no power of two
+	 */
+	public static long[] convolution(long[] f, long[] g) {
+		return convolution(f, g, false);
+	}
+
+	/***
+	 * The subset convolution of {@code f} and {@code g}, see
+	 * {@link #convolution(long[], long[])}.
+	 *
+	 * @param parallel whether the transforms are split among the common pool
+	 */
+	public static long[] convolution(long[] f, long[] g, boolean parallel) {
+		if (f.length != g.length)
+			throw new IllegalArgumentException();
+		int n = dimension(f.length);
+
+		// Split f and g by the size of the subsets and transform every rank
+		long[][] fr = new long[n + 1][f.length];
+		long[][] gr = new long[n + 1][f.length];
+		for (int mask = 0; mask < f.length; mask++) {
+			fr[Integer.bitCount(mask)][mask] = f[mask];
+			gr[Integer.bitCount(mask)][mask] = g[mask];
+		}
+		for (int k = 0; k <= n; k++) {
+			zeta(fr[k], parallel);
+			zeta(gr[k], parallel);
+		}
+
+		// Multiply pointwise, such that the ranks add up
+		long[][] hr = new long[n + 1][f.length];
+		for (int k = 0; k <= n; k++) {
+			long[] h = hr[k];
+			for (int j = 0; j <= k; j++) {
+				long[] a = fr[j];
+				long[] b = gr[k - j];
+				forEach(f.length, parallel, mask -> h[mask] += a[mask] * b[mask]);
+			}
+			moebius(h, parallel);
+		}
+
+		long[] result = new long[f.length];
+		for (int mask = 0; mask < f.length; mask++)
+			result[mask] = hr[Integer.bitCount(mask)][mask];
+		return result;
+	}
+
+	/***
+	 * The subset convolution of {@code f} and {@code g}, see
+	 * {@link #convolution(long[], long[])}.
+	 */
+	public static double[] convolution(double[] f, double[] g) {
+		return convolution(f, g, false);
+	}
+
+	/***
+	 * The subset convolution of {@code f} and {@code g}, see
+	 * {@link #convolution(long[], long[])}.
+	 *
+	 * @param parallel whether the transforms are split among the common pool
+	 */
+	public static double[] convolution(double[] f, double[] g, boolean parallel) {
+		if (f.length != g.length)
+			throw new IllegalArgumentException();
+		int n = dimension(f.length);
+
+		double[][] fr = new double[n + 1][f.length];
+		double[][] gr = new double[n + 1][f.length];
+		for (int mask = 0; mask < f.length; mask++) {
+			fr[Integer.bitCount(mask)][mask] = f[mask];
+			gr[Integer.bitCount(mask)][mask] = g[mask];
+		}
+		for (int k = 0; k <= n; k++) {
+			zeta(fr[k], parallel);
+			zeta(gr[k], parallel);
+		}
+
+		double[][] hr = new double[n + 1][f.length];
+		for (int k = 0; k <= n; k++) {
+			double[] h = hr[k];
+			for (int j = 0; j <= k; j++) {
+				double[] a = fr[j];
+				double[] b = gr[k - j];
+				forEach(f.length, parallel, mask -> h[mask] += a[mask] * b[mask]);
+			}
+			moebius(h, parallel);
+		}
+
+		double[] result = new double[f.length];
+		for (int mask = 0; mask < f.length; mask++)
+			result[mask] = hr[Integer.bitCount(mask)][mask];
+		return result;
+	}
+
+	/***
+	 * The number of base elements for a table of the given length.
+	 */
+	private static int dimension(int length) {
+		if (length <= 0 || Integer.bitCount(length) != 1)
+			throw new IllegalArgumentException();
+		return Integer.numberOfTrailingZeros(length);
+	}
+
+	private static int dimension(BitmaskPowerSet<?> powerSet) {
+		int n = powerSet.getElements().size();
+		if (n > MAX_SIZE)
+			throw new IllegalArgumentException();
+		return n;
+	}
+
+	/***
+	 * Calls {@code action} for every mask below {@code length} without the bit
+	 * {@code i}. The masks are generated by inserting a zero at position
+	 * {@code i} into the numbers below {@code length / 2}.
+	 */
+	private static void forEachPair(int length, int i, boolean parallel, IntConsumer action) {
+		int bit = 1 << i;
+		if (parallel) {
+			IntStream.range(0, length >> 1).parallel()
+					.forEach(t -> action.accept(((t >> i) << (i + 1)) | (t & (bit - 1))));
+			return;
+		}
+		for (int high = 0; high < length; high += bit << 1)
+			for (int low = high; low < high + bit; low++)
+				action.accept(low);
+	}
+
+	private static void forEach(int length, boolean parallel, IntConsumer action) {
+		if (parallel)
+			IntStream.range(0, length).parallel().forEach(action);
+		else
+			for (int mask = 0; mask < length; mask++)
+				action.accept(mask);
+	}
+}
@@ -0,0 +1,89 @@
+/**
+ *
+ */
+package edu.cs.ai.math.combinatorics;
+
+import java.util.AbstractSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A read-only view of a subset of a list, given by the positions of its
+ * elements. The view is updated in place by the iterator that returned it, so
+ * it must be copied by {@link #snapshot()} if it is retained.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+public final class SubsetView<E> extends AbstractSet<E> {
+
+	private final List<E> list;
+	private final int[] pos;
+	private int size;
+
+	SubsetView(List<E> list, int capacity) {
+		this.list = list;
+		this.pos = new int[capacity];
+	}
+
+	/***
+	 * Replaces the subset by the first {@code size} positions of {@code from}.
+	 */
+	void assign(int[] from, int size) {
+		System.arraycopy(from, 0, pos, 0, size);
+		this.size = size;
+	}
+
+	/***
+	 * Replaces the subset by the first {@code size} positions of {@code from},
+	 * followed by the position {@code last}.
+	 */
+	void assign(int[] from, int size, int last) {
+		System.arraycopy(from, 0, pos, 0, size);
+		pos[size] = last;
+		this.size = size + 1;
+	}
+
+	/***
+	 * Returns a copy of the current subset, which is not changed any more.
+	 */
+	public Set<E> snapshot() {
+		return new HashSet<>(this);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		for (int i = 0; i < size; i++)
+			if (Objects.equals(list.get(pos[i]), o))
+				return true;
+		return false;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			private int i = 0;
+
+			@Override
+			public boolean hasNext() {
+				return i < size;
+			}
+
+			@Override
+			public E next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				return list.get(pos[i++]);
+			}
+		};
+	}
+}
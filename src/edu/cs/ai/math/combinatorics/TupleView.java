@@ -0,0 +1,41 @@
+/**
+ *
+ */
+package edu.cs.ai.math.combinatorics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+import edu.cs.ai.math.settheory.Tuple;
+
+/**
+ * A read-only tuple, which is updated in place by the iterator that returned
+ * it. It must be copied by {@link #snapshot()} if it is retained.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+public final class TupleView<E> extends Tuple<E> {
+
+	TupleView(int arity) {
+		// Like the empty tuple of Tuple#Tuple(), a view of arity 0 has no list
+		if (arity > 0)
+			implTuple = new ArrayList<>(Collections.nCopies(arity, null));
+	}
+
+	/***
+	 * Replaces the element at index {@code i}.
+	 */
+	void set(int i, E element) {
+		implTuple.set(i, element);
+	}
+
+	/***
+	 * Returns a copy of the current tuple, which is not changed any more.
+	 */
+	public Tuple<E> snapshot() {
+		if (implTuple == null)
+			return new Tuple<>();
+		return new Tuple<>(implTuple);
+	}
+}
@@ -0,0 +1,117 @@
+/**
+ *
+ */
+package edu.cs.ai.math.combinatorics;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Samples set partitions and total preorders uniformly by throwing the elements
+ * into a random number of urns. The number of urns {@code k} is drawn from a
+ * mixture, such that the non-empty urns form a uniform random object:
+ * <ul>
+ * <li>Stam's algorithm for partitions draws {@code k} with probability
+ * {@code k^n / (e k! B(n))} and forgets the order of the urns.</li>
+ * <li>For total preorders {@code k} is drawn with probability
+ * {@code k^n / (2^(k+1) a(n))} and the non-empty urns keep their order.</li>
+ * </ul>
+ * The mixture weights are evaluated in double precision, so the samples are
+ * uniform up to rounding.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+final class UrnSampling {
+
+	/**
+	 * Weights smaller than {@code e^-CUTOFF} times the largest weight are
+	 * neglected.
+	 */
+	private static final double CUTOFF = 40.0;
+
+	private UrnSampling() {
+	}
+
+	/***
+	 * Writes a uniform random restricted growth string of a set partition into
+	 * {@code rgs}.
+	 */
+	static void samplePartition(int[] rgs, SplittableRandom random) {
+		int n = rgs.length;
+		if (n == 0)
+			return;
+		int k = drawUrns(n, random, false);
+		int[] label = new int[k];
+		int m = 0;
+		for (int i = 0; i < n; i++) {
+			int urn = random.nextInt(k);
+			// Number the urns by their first element
+			if (label[urn] == 0)
+				label[urn] = ++m;
+			rgs[i] = label[urn] - 1;
+		}
+	}
+
+	/***
+	 * Writes a uniform random layer vector of a total preorder into {@code code}.
+	 */
+	static void samplePreorder(int[] code, SplittableRandom random) {
+		int n = code.length;
+		if (n == 0)
+			return;
+		int k = drawUrns(n, random, true);
+		boolean[] used = new boolean[k];
+		for (int i = 0; i < n; i++) {
+			code[i] = random.nextInt(k);
+			used[code[i]] = true;
+		}
+		// Remove the empty urns, keeping the order of the others
+		int[] layer = new int[k];
+		int m = 0;
+		for (int urn = 0; urn < k; urn++) {
+			layer[urn] = m;
+			if (used[urn])
+				m += 1;
+		}
+		for (int i = 0; i < n; i++)
+			code[i] = layer[code[i]];
+	}
+
+	/***
+	 * Draws the number of urns for {@code n > 0} elements.
+	 */
+	private static int drawUrns(int n, SplittableRandom random, boolean ordered) {
+		// The log weights are concave in k, so the tail is cut after the peak.
+		double[] weights = new double[2 * n + 2];
+		double max = Double.NEGATIVE_INFINITY;
+		double logFactorial = 0.0;
+		int last = 0;
+		for (int k = 1;; k++) {
+			logFactorial += Math.log(k);
+			double w = n * Math.log(k) - (ordered ? k * Math.log(2.0) : logFactorial);
+			if (k >= weights.length)
+				weights = Arrays.copyOf(weights, 2 * weights.length);
+			weights[k] = w;
+			last = k;
+			if (w > max)
+				max = w;
+			else if (w < max - CUTOFF)
+				break;
+		}
+
+		double total = 0.0;
+		for (int k = 1; k <= last; k++) {
+			weights[k] = Math.exp(weights[k] - max);
+			total += weights[k];
+		}
+
+		double u = random.nextDouble() * total;
+		for (int k = 1; k < last; k++) {
+			u -= weights[k];
+			if (u < 0.0)
+				return k;
+		}
+		return last;
+	}
+}
@@ -0,0 +1,268 @@
+/**
+ *
+ */
+package test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import edu.cs.ai.math.combinatorics.CombinatorialNumbers;
+import edu.cs.ai.math.combinatorics.KCombinationLexicographic;
+import edu.cs.ai.math.combinatorics.KCombinationRevolvingDoor;
+import edu.cs.ai.math.combinatorics.KTupleEnumeration;
+import edu.cs.ai.math.combinatorics.Odometer;
+import edu.cs.ai.math.combinatorics.PartitionsGrayCode;
+import edu.cs.ai.math.combinatorics.PartitionsLexicographic;
+import edu.cs.ai.math.combinatorics.PermutationsLexicographic;
+import edu.cs.ai.math.combinatorics.PermutationsMinimalChange;
+import edu.cs.ai.math.combinatorics.PowerSet;
+import edu.cs.ai.math.combinatorics.PowerSetLexicographic;
+import edu.cs.ai.math.settheory.Tuple;
+
+/**
+ * Checks that the Gray code enumerations visit the same objects as the
+ * lexicographic ones, and that consecutive objects differ by exactly one
+ * change.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+class GrayCodeTest {
+
+	public static void main(String[] args) {
+		for (int n = 0; n <= 8; n++) {
+			for (int k = 0; k <= n; k++)
+				revolvingDoor(n, k);
+			powerSet(n);
+			minimalChange(n);
+			if (n <= 7)
+				partitions(n);
+		}
+		reflected(new int[] { 3, 1, 2, 4 });
+		reflected(new int[] { 2, 2, 2, 2, 2 });
+		reflected(new int[] { 1, 1 });
+		reflected(new int[] { 3, 0, 2 });
+		reflected(new int[0]);
+		System.out.println("ok");
+	}
+
+	static List<Integer> elements(int n) {
+		return IntStream.range(0, n).boxed().collect(Collectors.toList());
+	}
+
+	static void check(boolean condition, Object... context) {
+		if (!condition)
+			throw new AssertionError(Arrays.deepToString(context));
+	}
+
+	static void powerSet(int n) {
+		List<Set<Integer>> visited = new ArrayList<>();
+		PowerSet.forEach(elements(n), (subset, element, added) -> {
+			if (visited.isEmpty())
+				check(subset.isEmpty() && element == null, "first", n);
+			else {
+				// Exactly the reported element was toggled
+				Set<Integer> expected = new HashSet<>(visited.get(visited.size() - 1));
+				check(added ? expected.add(element) : expected.remove(element), "toggle", n, element, added);
+				check(expected.equals(subset), "toggle", n, element, added);
+			}
+			visited.add(new HashSet<>(subset));
+		});
+		check(visited.size() == CombinatorialNumbers.power(2, n).intValueExact(), "count", n);
+		check(PowerSet.count(elements(n)).intValueExact() == visited.size(), "count", n);
+
+		Set<Set<Integer>> expected = PowerSetLexicographic.stream(elements(n)).collect(Collectors.toSet());
+		check(new HashSet<>(visited).equals(expected), "elements", n);
+
+		List<Set<Integer>> iterated = new ArrayList<>();
+		PowerSet.GrayCodeIterator<Integer> itr = PowerSet.grayCodeIterator(elements(n));
+		while (itr.hasNext()) {
+			iterated.add(itr.next());
+			int i = iterated.size() - 1;
+			if (i > 0) {
+				Set<Integer> expectedNext = new HashSet<>(iterated.get(i - 1));
+				if (itr.wasAdded())
+					expectedNext.add(itr.getChanged());
+				else
+					expectedNext.remove(itr.getChanged());
+				check(expectedNext.equals(iterated.get(i)), "iterator", n, i);
+			}
+		}
+		check(iterated.equals(visited), "iterator", n);
+	}
+
+	/***
+	 * Checks the reflected {@link Odometer}, and the Gray code tuples over
+	 * domains of the sizes {@code radices}.
+	 */
+	static void reflected(int[] radices) {
+		List<List<Integer>> visited = new ArrayList<>();
+		Odometer odometer = Odometer.reflected(radices);
+		while (odometer.hasCurrent()) {
+			List<Integer> current = Arrays.stream(odometer.current()).boxed().collect(Collectors.toList());
+			if (!visited.isEmpty()) {
+				// Exactly the reported digit moved by one
+				List<Integer> last = visited.get(visited.size() - 1);
+				int j = odometer.changed();
+				for (int i = 0; i < radices.length; i++)
+					check(i == j ? Math.abs(current.get(i) - last.get(i)) == 1 : current.get(i).equals(last.get(i)),
+							"digit", radices, current);
+			}
+			visited.add(current);
+			odometer.advance();
+		}
+		List<List<Integer>> counting = new ArrayList<>();
+		Odometer lexicographic = new Odometer(radices);
+		while (lexicographic.hasCurrent()) {
+			counting.add(Arrays.stream(lexicographic.current()).boxed().collect(Collectors.toList()));
+			lexicographic.advance();
+		}
+		check(visited.size() == counting.size() && new HashSet<>(visited).equals(new HashSet<>(counting)), "digits",
+				radices);
+
+		List<List<Integer>> domains = new ArrayList<>();
+		for (int i = 0; i < radices.length; i++)
+			domains.add(elements(radices[i]).stream().map(v -> 10 * v).collect(Collectors.toList()));
+		Set<Tuple<Integer>> expected = new HashSet<>();
+		KTupleEnumeration.iterator(domains).forEachRemaining(expected::add);
+		check(KTupleEnumeration.count(domains).intValueExact() == expected.size(), "count", radices);
+
+		List<List<Integer>> tuples = new ArrayList<>();
+		KTupleEnumeration.forEachGray(domains, (tuple, position) -> {
+			if (tuples.isEmpty())
+				check(position == -1, "first", radices);
+			else {
+				List<Integer> last = tuples.get(tuples.size() - 1);
+				for (int i = 0; i < radices.length; i++)
+					check(i == position ^ tuple.get(i).equals(last.get(i)), "position", radices, tuple);
+			}
+			tuples.add(new ArrayList<>(tuple));
+		});
+		check(tuples.size() == expected.size(), "count", radices);
+
+		List<List<Integer>> iterated = new ArrayList<>();
+		KTupleEnumeration.grayIterator(domains).forEachRemaining(
+				t -> iterated.add(IntStream.range(0, t.getArity()).mapToObj(t::getIth).collect(Collectors.toList())));
+		check(iterated.equals(tuples), "iterator", radices);
+		Set<Tuple<Integer>> gray = new HashSet<>();
+		KTupleEnumeration.grayIterator(domains).forEachRemaining(gray::add);
+		check(gray.equals(expected), "elements", radices);
+	}
+
+	/***
+	 * Checks that every step of {@link PartitionsGrayCode} moves the reported
+	 * element, that the other blocks keep their number, and that every partition
+	 * of {@link PartitionsLexicographic} is visited once. The partitions are
+	 * compared by their lexicographic rank.
+	 */
+	static void partitions(int n) {
+		List<Integer> input = elements(n);
+		List<Long> ranks = new ArrayList<>();
+		List<List<Set<Integer>>> previous = new ArrayList<>();
+		PartitionsGrayCode.forEach(input, (blocks, element, from, to) -> {
+			List<Set<Integer>> current = new ArrayList<>();
+			for (List<Integer> block : blocks) {
+				check(!block.isEmpty(), "empty", n, blocks);
+				current.add(new HashSet<>(block));
+			}
+			if (previous.isEmpty())
+				check(element == null && from == -1 && to == -1, "first", n);
+			else {
+				List<Set<Integer>> expected = new ArrayList<>();
+				for (Set<Integer> block : previous.get(0))
+					expected.add(new HashSet<>(block));
+				check(from != to && expected.get(from).remove(element), "from", n, blocks, element, from, to);
+				if (to == expected.size())
+					expected.add(new HashSet<>());
+				expected.get(to).add(element);
+				if (expected.get(from).isEmpty()) {
+					check(from == expected.size() - 1, "closed", n, blocks, element, from, to);
+					expected.remove(from);
+				}
+				check(expected.equals(current), "move", n, blocks, element, from, to);
+			}
+			previous.clear();
+			previous.add(current);
+			ranks.add(PartitionsLexicographic.rank(input, blocks));
+		});
+		check(PartitionsGrayCode.count(input).equals(PartitionsLexicographic.count(input)), "count", n);
+		check(ranks.size() == PartitionsLexicographic.count(input).intValueExact(), "count", n);
+		check(new HashSet<>(ranks).size() == ranks.size(), "distinct", n);
+
+		List<Long> streamed = PartitionsGrayCode.stream(input).map(p -> PartitionsLexicographic.rank(input, p))
+				.collect(Collectors.toList());
+		check(streamed.equals(ranks), "stream", n);
+
+		List<Long> strings = new ArrayList<>();
+		int[] last = new int[n];
+		PartitionsGrayCode.forEach(n, (rgs, position, from, to) -> {
+			if (!strings.isEmpty())
+				for (int i = 0; i < n; i++)
+					check(i == position ? last[i] == from && rgs[i] == to : last[i] == rgs[i], "rgs", n, rgs);
+			System.arraycopy(rgs, 0, last, 0, n);
+			strings.add(PartitionsLexicographic.rank(rgs));
+		});
+		check(strings.equals(ranks), "strings", n);
+	}
+
+	/***
+	 * Checks that every step of Heap's algorithm swaps exactly the two reported
+	 * positions, and that every permutation of {@link PermutationsLexicographic}
+	 * is visited once.
+	 */
+	static void minimalChange(int n) {
+		List<List<Integer>> visited = new ArrayList<>();
+		PermutationsMinimalChange.forEach(n, (permutation, i, j) -> {
+			List<Integer> current = Arrays.stream(permutation).boxed().collect(Collectors.toList());
+			if (visited.isEmpty())
+				check(i == -1 && j == -1 && current.equals(elements(n)), "first", n);
+			else {
+				List<Integer> expected = new ArrayList<>(visited.get(visited.size() - 1));
+				check(i != j, "swap", n, i, j);
+				Collections.swap(expected, i, j);
+				check(expected.equals(current), "swap", n, current, i, j);
+			}
+			visited.add(current);
+		});
+		check(visited.size() == CombinatorialNumbers.factorialLong(n), "count", n);
+		Set<List<Integer>> expected = PermutationsLexicographic.stream(elements(n)).collect(Collectors.toSet());
+		check(new HashSet<>(visited).equals(expected), "elements", n);
+
+		List<Integer> letters = elements(n).stream().map(v -> 10 * v).collect(Collectors.toList());
+		List<List<Integer>> listed = new ArrayList<>();
+		PermutationsMinimalChange.forEach(letters, p -> listed.add(new ArrayList<>(p)));
+		check(listed.equals(visited.stream().map(p -> p.stream().map(v -> 10 * v).collect(Collectors.toList()))
+				.collect(Collectors.toList())), "list", n);
+	}
+
+	static void revolvingDoor(int n, int k) {
+		List<Set<Integer>> visited = new ArrayList<>();
+		KCombinationRevolvingDoor.forEach(n, k, (combination, out, in) -> {
+			Set<Integer> current = new HashSet<>();
+			for (int p : combination)
+				current.add(p);
+			check(current.size() == k, "size", n, k, combination);
+			if (visited.isEmpty())
+				check(out == -1 && in == -1, "first", n, k);
+			else {
+				// One position swapped out and one swapped in
+				Set<Integer> expected = new HashSet<>(visited.get(visited.size() - 1));
+				check(expected.remove(out) && expected.add(in), "door", n, k, out, in);
+				check(expected.equals(current), "door", n, k, out, in);
+			}
+			visited.add(current);
+		});
+		check(visited.size() == CombinatorialNumbers.binomialLong(n, k), "count", n, k);
+
+		Set<Set<Integer>> expected = KCombinationLexicographic.stream(elements(n), k).collect(Collectors.toSet());
+		check(new HashSet<>(visited).equals(expected), "elements", n, k);
+		check(KCombinationRevolvingDoor.stream(elements(n), k).collect(Collectors.toList()).equals(visited), "stream",
+				n, k);
+	}
+}
@@ -0,0 +1,144 @@
+/**
+ *
+ */
+package test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import edu.cs.ai.math.combinatorics.CombinatorialNumbers;
+import edu.cs.ai.math.combinatorics.KCombinationLexicographic;
+
+/**
+ * Checks that the k-subsets as bitmasks and as {@link BitSet} are the k-subsets
+ * of {@link KCombinationLexicographic#iterator(List, int)} in colexicographic
+ * order, also at the boundary of 64 elements, where the highest bit is the
+ * sign of a {@code long}.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+class MaskTest {
+
+	public static void main(String[] args) {
+		for (int n = 0; n <= 10; n++)
+			for (int k = 0; k <= n; k++) {
+				small(n, k);
+				bitSets(n, k);
+			}
+		for (int n = 62; n <= 64; n++)
+			for (int k : new int[] { 0, 1, 2, n - 2, n - 1, n }) {
+				boundary(n, k);
+				bitSets(n, k);
+			}
+		bitSets(65, 1);
+		bitSets(100, 2);
+		bitSets(70, 68);
+		try {
+			KCombinationLexicographic.maskIterator(65, 1);
+			throw new AssertionError("65");
+		} catch (IllegalArgumentException e) {
+		}
+		System.out.println("ok");
+	}
+
+	static void check(boolean condition, Object... context) {
+		if (!condition)
+			throw new AssertionError(Arrays.deepToString(context));
+	}
+
+	static List<Long> masks(int n, int k) {
+		List<Long> result = new ArrayList<>();
+		PrimitiveIterator.OfLong itr = KCombinationLexicographic.maskIterator(n, k);
+		while (itr.hasNext())
+			result.add(itr.nextLong());
+		return result;
+	}
+
+	/***
+	 * The masks are increasing, and are the k-subsets of the lexicographic
+	 * enumeration.
+	 */
+	static void small(int n, int k) {
+		List<Long> masks = masks(n, k);
+		for (int i = 1; i < masks.size(); i++)
+			check(masks.get(i - 1) < masks.get(i), "increasing", n, k, i);
+
+		List<Integer> input = IntStream.range(0, n).boxed().collect(Collectors.toList());
+		Set<Long> expected = new HashSet<>();
+		KCombinationLexicographic.iterator(input, k).forEachRemaining(s -> {
+			long mask = 0L;
+			for (int e : s)
+				mask |= 1L << e;
+			expected.add(mask);
+		});
+		check(new HashSet<>(masks).equals(expected) && masks.size() == expected.size(), "masks", n, k);
+		check(KCombinationLexicographic.masks(n, k).boxed().collect(Collectors.toList()).equals(masks), "stream", n,
+				k);
+		check(KCombinationLexicographic.masks(n, k).spliterator().getExactSizeIfKnown() == masks.size(), "size", n,
+				k);
+	}
+
+	/***
+	 * Near 64 elements the masks are compared unsigned, since the highest bit is
+	 * the sign. The first and the last mask are the lowest and the highest k
+	 * bits.
+	 */
+	static void boundary(int n, int k) {
+		long count = CombinatorialNumbers.binomialLong(n, k);
+		long first = k == 0 ? 0L : -1L >>> (Long.SIZE - k);
+		long last = first << (n - k);
+		check(KCombinationLexicographic.masks(n, k).count() == count, "count", n, k);
+		List<Long> masks = masks(n, k);
+		check(masks.size() == count, "count", n, k);
+		check(masks.get(0) == first && masks.get(masks.size() - 1) == last, "bounds", n, k);
+		for (int i = 0; i < masks.size(); i++) {
+			long mask = masks.get(i);
+			check(Long.bitCount(mask) == k && (n == Long.SIZE || mask >>> n == 0L), "mask", n, k, mask);
+			if (i > 0)
+				check(Long.compareUnsigned(masks.get(i - 1), mask) < 0, "increasing", n, k, i);
+		}
+	}
+
+	/***
+	 * The {@link BitSet} iterator visits the same subsets as the masks up to 64
+	 * elements, and beyond the number of k-subsets in colexicographic order.
+	 */
+	static void bitSets(int n, int k) {
+		List<BitSet> bitSets = new ArrayList<>();
+		Iterator<BitSet> itr = KCombinationLexicographic.bitSetIterator(n, k);
+		while (itr.hasNext())
+			bitSets.add(itr.next());
+		check(bitSets.size() == CombinatorialNumbers.binomialLong(n, k), "count", n, k);
+		for (int i = 0; i < bitSets.size(); i++) {
+			BitSet subset = bitSets.get(i);
+			check(subset.cardinality() == k && subset.length() <= n, "subset", n, k, subset);
+			if (i > 0)
+				check(colex(bitSets.get(i - 1), subset) < 0, "colex", n, k, i);
+		}
+
+		if (n > Long.SIZE)
+			return;
+		List<Long> masks = masks(n, k);
+		for (int i = 0; i < masks.size(); i++)
+			check(bitSets.get(i).equals(BitSet.valueOf(new long[] { masks.get(i) })), "mask", n, k, i);
+	}
+
+	/***
+	 * Compares by the highest differing element.
+	 */
+	static int colex(BitSet a, BitSet b) {
+		BitSet diff = (BitSet) a.clone();
+		diff.xor(b);
+		int top = diff.length() - 1;
+		return top < 0 ? 0 : b.get(top) ? -1 : 1;
+	}
+}
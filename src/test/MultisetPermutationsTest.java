@@ -0,0 +1,97 @@
+/**
+ *
+ */
+package test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import edu.cs.ai.math.combinatorics.EnumerativeCombinatorics;
+import edu.cs.ai.math.combinatorics.MultisetPermutationsLexicographic;
+
+/**
+ * Checks that the distinct permutations of a list with repeated elements are
+ * the permutations of {@link EnumerativeCombinatorics#generatePermutations}
+ * without duplicates, each visited once, in lexicographic order by the index of
+ * first occurrence.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+class MultisetPermutationsTest {
+
+	public static void main(String[] args) {
+		order();
+		permutations(List.of());
+		permutations(List.of("a"));
+		permutations(List.of("a", "a", "a"));
+		permutations(List.of("b", "a", "b", "c"));
+		SplittableRandom random = new SplittableRandom(3);
+		for (int n = 1; n <= 8; n++)
+			for (int alphabet = 1; alphabet <= 4; alphabet++)
+				permutations(random.ints(n, 0, alphabet).boxed().collect(Collectors.toList()));
+		System.out.println("ok");
+	}
+
+	static void check(boolean condition, Object... context) {
+		if (!condition)
+			throw new AssertionError(Arrays.deepToString(context));
+	}
+
+	/***
+	 * The order follows the first occurrence of the elements, not their values.
+	 */
+	static void order() {
+		List<Integer> input = List.of(3, 1, 3, 2, 1, 3);
+		List<List<Integer>> visited = MultisetPermutationsLexicographic.stream(input).collect(Collectors.toList());
+		check(visited.get(0).equals(List.of(3, 3, 3, 1, 1, 2)), "first", visited.get(0));
+		check(visited.get(visited.size() - 1).equals(List.of(2, 1, 1, 3, 3, 3)), "last",
+				visited.get(visited.size() - 1));
+
+		// forEach on the values orders by value
+		List<List<Integer>> values = new ArrayList<>();
+		MultisetPermutationsLexicographic.forEach(new int[] { 3, 1, 3, 2, 1, 3 },
+				a -> values.add(Arrays.stream(a).boxed().collect(Collectors.toList())));
+		check(values.get(0).equals(List.of(1, 1, 2, 3, 3, 3)), "first value", values.get(0));
+		check(values.get(values.size() - 1).equals(List.of(3, 3, 3, 2, 1, 1)), "last value",
+				values.get(values.size() - 1));
+		check(values.size() == visited.size() && new HashSet<>(values).equals(new HashSet<>(visited)), "values");
+	}
+
+	static <E> void permutations(List<E> input) {
+		Set<List<E>> expected = new HashSet<>();
+		EnumerativeCombinatorics.generatePermutations(input, p -> expected.add(new ArrayList<>(p)));
+
+		List<List<E>> visited = new ArrayList<>();
+		MultisetPermutationsLexicographic.iterator(input).forEachRemaining(visited::add);
+		check(new HashSet<>(visited).size() == visited.size(), "twice", input);
+		check(new HashSet<>(visited).equals(expected), "permutations", input);
+		check(MultisetPermutationsLexicographic.count(input).intValueExact() == visited.size(), "count", input);
+
+		// Strictly increasing in the indices of first occurrence
+		List<E> first = new ArrayList<>(new LinkedHashSet<>(input));
+		for (int i = 1; i < visited.size(); i++)
+			check(compare(first, visited.get(i - 1), visited.get(i)) < 0, "order", input, i);
+
+		check(MultisetPermutationsLexicographic.stream(input).collect(Collectors.toList()).equals(visited), "stream",
+				input);
+		List<List<E>> generated = new ArrayList<>();
+		EnumerativeCombinatorics.generateDistinctPermutations(input, p -> generated.add(new ArrayList<>(p)));
+		check(generated.equals(visited), "generated", input);
+	}
+
+	static <E> int compare(List<E> first, List<E> a, List<E> b) {
+		for (int i = 0; i < a.size(); i++) {
+			int c = Integer.compare(first.indexOf(a.get(i)), first.indexOf(b.get(i)));
+			if (c != 0)
+				return c;
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,274 @@
+/**
+ *
+ */
+package test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import edu.cs.ai.math.combinatorics.CombinatorialNumbers;
+import edu.cs.ai.math.combinatorics.EnumerativeCombinatorics;
+import edu.cs.ai.math.combinatorics.KCombinationLexicographic;
+import edu.cs.ai.math.combinatorics.KPermutationLexicographic;
+import edu.cs.ai.math.combinatorics.KTupleEnumeration;
+import edu.cs.ai.math.combinatorics.Odometer;
+import edu.cs.ai.math.combinatorics.PermutationsLexicographic;
+import edu.cs.ai.math.combinatorics.PowerSetLexicographic;
+
+/**
+ * Checks that the sized streams, which split their rank range for parallel
+ * processing, and the batched enumerations deliver the same objects in the
+ * same order as the sequential iterators.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+class ParallelStreamTest {
+
+	public static void main(String[] args) {
+		for (int n = 0; n <= 12; n++)
+			powerSet(elements(n));
+		powerSet(List.of(1, 2, 1, 3));
+		largePowerSet(elements(62));
+		largePowerSet(elements(63));
+		for (int n = 0; n <= 8; n++)
+			permutations(elements(n));
+		largePermutations(elements(20));
+		largePermutations(elements(21));
+		for (int n = 0; n <= 5; n++)
+			for (int rows : new int[] { 1, 2, 7, 256 })
+				batchedVariations(n, rows);
+		filled(new int[] { 3, 1, 2, 4 }, 5);
+		filled(new int[] { 3, 0, 2 }, 5);
+		for (int n = 0; n <= 12; n++)
+			for (int k = 0; k <= n; k++)
+				kCombinations(elements(n), k);
+		kCombinations(List.of(1, 2, 1, 3, 2), 2);
+		largeKCombinations(elements(66), 33);
+		largeKCombinations(elements(68), 34);
+		largeKPermutations(elements(20), 15);
+		largeKPermutations(elements(30), 20);
+		System.out.println("ok");
+	}
+
+	static List<Integer> elements(int n) {
+		return IntStream.range(0, n).boxed().collect(Collectors.toList());
+	}
+
+	static void check(boolean condition, Object... context) {
+		if (!condition)
+			throw new AssertionError(Arrays.deepToString(context));
+	}
+
+	static <T> List<T> list(Iterator<T> itr) {
+		List<T> result = new ArrayList<>();
+		itr.forEachRemaining(result::add);
+		return result;
+	}
+
+	/***
+	 * Splits {@code spliterator} up to {@code depth} times, and concatenates the
+	 * parts in encounter order. The sizes of the parts have to add up.
+	 */
+	static <T> List<T> splitAll(Spliterator<T> spliterator, int depth) {
+		long size = spliterator.estimateSize();
+		Spliterator<T> prefix = depth == 0 ? null : spliterator.trySplit();
+		List<T> result = new ArrayList<>();
+		if (prefix != null) {
+			check(prefix.estimateSize() + spliterator.estimateSize() == size, "split size", size);
+			result.addAll(splitAll(prefix, depth - 1));
+			result.addAll(splitAll(spliterator, depth - 1));
+			return result;
+		}
+		spliterator.forEachRemaining(result::add);
+		check(result.size() == size, "size", size);
+		return result;
+	}
+
+	/***
+	 * Checks the parallel stream, the explicit splits and the count of a sized
+	 * stream against the sequential order.
+	 */
+	static <T> void sized(Stream<T> stream, Stream<T> parallel, List<T> sequential, Object... context) {
+		Spliterator<T> spliterator = stream.spliterator();
+		check(spliterator.hasCharacteristics(Spliterator.SIZED), "sized", context);
+		check(spliterator.getExactSizeIfKnown() == sequential.size(), "size", context);
+		check(splitAll(spliterator, 6).equals(sequential), "splits", context);
+		check(parallel.parallel().collect(Collectors.toList()).equals(sequential), "parallel", context);
+	}
+
+	static void powerSet(List<Integer> input) {
+		List<Set<Integer>> sequential = list(PowerSetLexicographic.iterator(input));
+		sized(PowerSetLexicographic.stream(input), PowerSetLexicographic.stream(input), sequential, "power set",
+				input);
+		check(PowerSetLexicographic.stream(input).parallel().count() == sequential.size(), "count", input);
+	}
+
+	/***
+	 * Up to 62 elements the stream is sized, beyond it falls back to the
+	 * iterator. Both start like the iterator, also when run in parallel.
+	 */
+	static void largePowerSet(List<Integer> input) {
+		Spliterator<Set<Integer>> spliterator = PowerSetLexicographic.stream(input).spliterator();
+		if (input.size() <= 62)
+			check(spliterator.getExactSizeIfKnown() == 1L << input.size(), "size", input.size());
+		else
+			check(!spliterator.hasCharacteristics(Spliterator.SIZED), "unsized", input.size());
+		List<Set<Integer>> head = new ArrayList<>();
+		Iterator<Set<Integer>> itr = PowerSetLexicographic.iterator(input);
+		while (head.size() < 5000)
+			head.add(itr.next());
+		check(PowerSetLexicographic.stream(input).parallel().limit(head.size()).collect(Collectors.toList())
+				.equals(head), "head", input.size());
+	}
+
+	/***
+	 * The permutations are streamed in the order of the iterator, which is the
+	 * order of {@link EnumerativeCombinatorics#generatePermutations}.
+	 */
+	static void permutations(List<Integer> input) {
+		List<List<Integer>> sequential = list(PermutationsLexicographic.iterator(input));
+		check(sequential.size() == CombinatorialNumbers.factorialLong(input.size()), "count", input);
+		List<List<Integer>> generated = new ArrayList<>();
+		EnumerativeCombinatorics.generatePermutations(input, p -> generated.add(new ArrayList<>(p)));
+		check(generated.equals(sequential), "generated", input);
+		sized(PermutationsLexicographic.stream(input), PermutationsLexicographic.stream(input), sequential,
+				"permutations", input);
+	}
+
+	/***
+	 * Up to 20 elements the stream is sized, beyond it falls back to the
+	 * iterator. Both start like the iterator, also when run in parallel.
+	 */
+	static void largePermutations(List<Integer> input) {
+		Spliterator<List<Integer>> spliterator = PermutationsLexicographic.stream(input).spliterator();
+		if (input.size() <= 20)
+			check(spliterator.getExactSizeIfKnown() == CombinatorialNumbers.factorialLong(input.size()), "size",
+					input.size());
+		else
+			check(!spliterator.hasCharacteristics(Spliterator.SIZED), "unsized", input.size());
+		List<List<Integer>> head = new ArrayList<>();
+		Iterator<List<Integer>> itr = PermutationsLexicographic.iterator(input);
+		while (head.size() < 5000)
+			head.add(itr.next());
+		check(PermutationsLexicographic.stream(input).parallel().limit(head.size()).collect(Collectors.toList())
+				.equals(head), "head", input.size());
+	}
+
+	/***
+	 * The blocks of the batched variations are full except for the last one,
+	 * and their rows are the variations in the order of the parallel stream of
+	 * {@code n}-tuples.
+	 */
+	static void batchedVariations(int n, int rows) {
+		List<Integer> input = elements(n);
+		List<List<Integer>> expected = KTupleEnumeration.stream(input, n).parallel()
+				.map(t -> IntStream.range(0, n).mapToObj(t::getIth).collect(Collectors.toList()))
+				.collect(Collectors.toList());
+
+		// One spare column, which must stay untouched
+		int[][] block = new int[rows][n + 1];
+		for (int[] row : block)
+			row[n] = -1;
+		List<List<Integer>> visited = new ArrayList<>();
+		List<Integer> filled = new ArrayList<>();
+		EnumerativeCombinatorics.generateVariations(n, block, count -> {
+			filled.add(count);
+			for (int r = 0; r < count; r++) {
+				check(block[r][n] == -1, "spare", n, rows);
+				visited.add(Arrays.stream(block[r], 0, n).boxed().collect(Collectors.toList()));
+			}
+		});
+		check(visited.equals(expected), "variations", n, rows);
+		for (int i = 0; i < filled.size() - 1; i++)
+			check(filled.get(i) == rows, "full", n, rows, filled);
+		int last = filled.get(filled.size() - 1);
+		check(0 < last && last <= rows, "last", n, rows, filled);
+	}
+
+	/***
+	 * Copying blocks out of an {@link Odometer} visits its variations in counting
+	 * order.
+	 */
+	static void filled(int[] radices, int rows) {
+		List<List<Integer>> expected = new ArrayList<>();
+		Odometer odometer = new Odometer(radices);
+		while (odometer.hasCurrent()) {
+			expected.add(Arrays.stream(odometer.current()).boxed().collect(Collectors.toList()));
+			odometer.advance();
+		}
+
+		Odometer blocks = new Odometer(radices);
+		int[][] block = new int[rows][radices.length];
+		List<List<Integer>> visited = new ArrayList<>();
+		int count;
+		do {
+			count = blocks.fill(block);
+			for (int r = 0; r < count; r++)
+				visited.add(Arrays.stream(block[r]).boxed().collect(Collectors.toList()));
+		} while (count == rows);
+		check(visited.equals(expected), "fill", radices);
+		check(!blocks.hasCurrent() && blocks.fill(block) == 0, "exhausted", radices);
+	}
+
+	/***
+	 * The k-subsets are streamed in the order of the iterator, and the stream is
+	 * distinct exactly for distinct elements.
+	 */
+	static void kCombinations(List<Integer> input, int k) {
+		List<Set<Integer>> sequential = list(KCombinationLexicographic.iterator(input, k));
+		check(sequential.size() == CombinatorialNumbers.binomialLong(input.size(), k), "count", input, k);
+		sized(KCombinationLexicographic.stream(input, k), KCombinationLexicographic.stream(input, k), sequential,
+				"k-subsets", input, k);
+		boolean distinct = input.stream().distinct().count() == input.size();
+		check(KCombinationLexicographic.stream(input, k).spliterator()
+				.hasCharacteristics(Spliterator.DISTINCT) == distinct, "distinct", input, k);
+	}
+
+	/***
+	 * While {@code C(n,k)} fits into a {@code long} the stream is sized, beyond
+	 * it falls back to the iterator. Both start like the iterator, also when run
+	 * in parallel.
+	 */
+	static void largeKCombinations(List<Integer> input, int k) {
+		Spliterator<Set<Integer>> spliterator = KCombinationLexicographic.stream(input, k).spliterator();
+		if (CombinatorialNumbers.binomial(input.size(), k).bitLength() < Long.SIZE)
+			check(spliterator.getExactSizeIfKnown() == CombinatorialNumbers.binomialLong(input.size(), k), "size",
+					input.size(), k);
+		else
+			check(!spliterator.hasCharacteristics(Spliterator.SIZED), "unsized", input.size(), k);
+		List<Set<Integer>> head = new ArrayList<>();
+		Iterator<Set<Integer>> itr = KCombinationLexicographic.iterator(input, k);
+		while (head.size() < 5000)
+			head.add(itr.next());
+		check(KCombinationLexicographic.stream(input, k).parallel().limit(head.size()).collect(Collectors.toList())
+				.equals(head), "head", input.size(), k);
+	}
+
+	/***
+	 * While the falling factorial fits into a {@code long} the stream of
+	 * k-permutations is sized, beyond it falls back to the iterator. Both start
+	 * like the iterator, also when run in parallel.
+	 */
+	static void largeKPermutations(List<Integer> input, int k) {
+		Spliterator<List<Integer>> spliterator = KPermutationLexicographic.stream(input, k).spliterator();
+		if (CombinatorialNumbers.fallingFactorial(input.size(), k).bitLength() < Long.SIZE)
+			check(spliterator.getExactSizeIfKnown() == CombinatorialNumbers.fallingFactorialLong(input.size(), k),
+					"size", input.size(), k);
+		else
+			check(!spliterator.hasCharacteristics(Spliterator.SIZED), "unsized", input.size(), k);
+		List<List<Integer>> head = new ArrayList<>();
+		Iterator<List<Integer>> itr = KPermutationLexicographic.iterator(input, k);
+		while (head.size() < 5000)
+			head.add(itr.next());
+		check(KPermutationLexicographic.stream(input, k).parallel().limit(head.size()).collect(Collectors.toList())
+				.equals(head), "head", input.size(), k);
+	}
+}
@@ -0,0 +1,107 @@
+/**
+ *
+ */
+package test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import edu.cs.ai.math.combinatorics.CombinatorialNumbers;
+import edu.cs.ai.math.combinatorics.PartitionView;
+import edu.cs.ai.math.combinatorics.PartitionsKBlocks;
+import edu.cs.ai.math.combinatorics.PartitionsLexicographic;
+
+/**
+ * Checks that the partitions into a bounded number of blocks are exactly the
+ * partitions of {@link PartitionsLexicographic} with that number of blocks,
+ * each visited once and ordered by the number of blocks, and that their number
+ * is a sum of Stirling numbers.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+class PartitionsKBlocksTest {
+
+	public static void main(String[] args) {
+		for (int n = 0; n <= 8; n++) {
+			List<Integer> input = elements(n);
+			List<List<List<Integer>>> all = PartitionsLexicographic.stream(input).collect(Collectors.toList());
+			for (int kmin = 1; kmin <= n + 1; kmin++)
+				for (int kmax = kmin; kmax <= n + 1; kmax++)
+					check(input, all, kmin, kmax);
+		}
+		// Few blocks missing, where most prefixes have a single continuation
+		for (int n = 10; n <= 16; n += 3)
+			for (int k = n - 3; k <= n; k++)
+				nearlyDiscrete(elements(n), k);
+		System.out.println("ok");
+	}
+
+	static List<Integer> elements(int n) {
+		return IntStream.range(0, n).boxed().collect(Collectors.toList());
+	}
+
+	static void check(List<Integer> input, List<List<List<Integer>>> all, int kmin, int kmax) {
+		int n = input.size();
+		Set<Long> expected = new HashSet<>();
+		for (List<List<Integer>> partition : all)
+			if (kmin <= partition.size() && partition.size() <= kmax)
+				expected.add(PartitionsLexicographic.rank(input, partition));
+
+		List<List<List<Integer>>> bounded = PartitionsKBlocks.stream(input, kmin, kmax).collect(Collectors.toList());
+		Set<Long> ranks = new HashSet<>();
+		int blocks = 0;
+		for (List<List<Integer>> partition : bounded) {
+			if (partition.size() < blocks)
+				throw new AssertionError(n + " " + kmin + " " + kmax + ": order " + bounded);
+			blocks = partition.size();
+			if (!ranks.add(PartitionsLexicographic.rank(input, partition)))
+				throw new AssertionError(n + " " + kmin + " " + kmax + ": twice " + partition);
+		}
+		if (!ranks.equals(expected))
+			throw new AssertionError(n + " " + kmin + " " + kmax + ": " + bounded);
+
+		BigInteger count = BigInteger.ZERO;
+		for (int k = kmin; k <= Math.min(kmax, n); k++)
+			count = count.add(CombinatorialNumbers.stirling2(n, k));
+		if (!count.equals(BigInteger.valueOf(expected.size()))
+				|| !PartitionsKBlocks.count(input, kmin, kmax).equals(count))
+			throw new AssertionError(n + " " + kmin + " " + kmax + ": count");
+		if (kmin == kmax && !PartitionsKBlocks.count(input, kmin).equals(count))
+			throw new AssertionError(n + " " + kmin + ": count");
+
+		List<List<List<Integer>>> iterated = new ArrayList<>();
+		PartitionsKBlocks.iterator(input, kmin, kmax).forEachRemaining(iterated::add);
+		List<List<List<Integer>>> reused = new ArrayList<>();
+		Iterator<PartitionView<Integer>> itr = PartitionsKBlocks.reusingIterator(input, kmin, kmax);
+		while (itr.hasNext())
+			reused.add(itr.next().snapshot());
+		if (!iterated.equals(bounded) || !reused.equals(bounded))
+			throw new AssertionError(n + " " + kmin + " " + kmax + ": reused " + reused);
+	}
+
+	/***
+	 * Checks the partitions into {@code k} blocks for {@code k} close to
+	 * {@code n}, where the full enumeration is too large to compare with.
+	 */
+	static void nearlyDiscrete(List<Integer> input, int k) {
+		int n = input.size();
+		Set<Long> ranks = new HashSet<>();
+		Iterator<List<List<Integer>>> itr = PartitionsKBlocks.iterator(input, k);
+		while (itr.hasNext()) {
+			List<List<Integer>> partition = itr.next();
+			if (partition.size() != k || partition.stream().anyMatch(List::isEmpty))
+				throw new AssertionError(n + " " + k + ": " + partition);
+			if (!ranks.add(PartitionsLexicographic.rank(input, partition)))
+				throw new AssertionError(n + " " + k + ": twice " + partition);
+		}
+		if (ranks.size() != CombinatorialNumbers.stirling2Long(n, k))
+			throw new AssertionError(n + " " + k + ": count " + ranks.size());
+	}
+}
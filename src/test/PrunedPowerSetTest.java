@@ -0,0 +1,114 @@
+/**
+ *
+ */
+package test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import edu.cs.ai.math.combinatorics.PowerSet;
+import edu.cs.ai.math.combinatorics.PowerSetLexicographic;
+
+/**
+ * Checks that the power sets with a downward-closed predicate are exactly the
+ * subsets of the full enumeration, which satisfy the predicate, that the
+ * lexicographic variant keeps the order of
+ * {@link PowerSetLexicographic#iterator(List)}, and that the predicate is only
+ * called for extensions of accepted subsets.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+class PrunedPowerSetTest {
+
+	public static void main(String[] args) {
+		Map<String, Predicate<Set<Integer>>> tests = new LinkedHashMap<>();
+		tests.put("all", s -> true);
+		tests.put("none", s -> false);
+		tests.put("small", s -> s.size() <= 2);
+		tests.put("sum", s -> s.stream().mapToInt(Integer::intValue).sum() <= 9);
+		tests.put("no neighbours", s -> s.stream().noneMatch(e -> s.contains(e + 1)));
+		tests.put("no odd", s -> s.stream().allMatch(e -> e % 2 == 0));
+
+		for (int n = 0; n <= 9; n++)
+			for (Map.Entry<String, Predicate<Set<Integer>>> test : tests.entrySet()) {
+				List<Integer> input = IntStream.range(0, n).boxed().collect(Collectors.toList());
+				lexicographic(input, test.getKey(), test.getValue());
+				depthFirst(input, test.getKey(), test.getValue());
+			}
+		// Repeated elements are taken once
+		depthFirst(List.of(3, 1, 3, 2, 1), "repeated", s -> s.size() <= 2);
+		System.out.println("ok");
+	}
+
+	static void check(boolean condition, Object... context) {
+		if (!condition)
+			throw new AssertionError(Arrays.deepToString(context));
+	}
+
+	/***
+	 * Wraps {@code test} to record a copy of every tested set.
+	 */
+	static Predicate<Set<Integer>> recording(Predicate<Set<Integer>> test, List<Set<Integer>> tested) {
+		return s -> {
+			tested.add(new HashSet<>(s));
+			return test.test(s);
+		};
+	}
+
+	/***
+	 * Every tested set except the empty one is an accepted subset extended by an
+	 * element, which comes after all its elements in {@code order}.
+	 */
+	static void checkExtensions(List<Integer> order, Set<Set<Integer>> accepted, List<Set<Integer>> tested,
+			Object... context) {
+		check(!tested.isEmpty() && tested.get(0).isEmpty(), "empty first", context);
+		for (Set<Integer> set : tested.subList(1, tested.size())) {
+			Integer last = Collections.max(set, (a, b) -> Integer.compare(order.indexOf(a), order.indexOf(b)));
+			Set<Integer> parent = new HashSet<>(set);
+			parent.remove(last);
+			check(accepted.contains(parent), "pruned", set, context);
+		}
+		check(new HashSet<>(tested).size() == tested.size(), "tested twice", context);
+	}
+
+	static void lexicographic(List<Integer> input, String name, Predicate<Set<Integer>> test) {
+		List<Set<Integer>> expected = new ArrayList<>();
+		PowerSetLexicographic.iterator(input).forEachRemaining(s -> {
+			if (test.test(s))
+				expected.add(s);
+		});
+
+		List<Set<Integer>> tested = new ArrayList<>();
+		List<Set<Integer>> visited = new ArrayList<>();
+		PowerSetLexicographic.iterator(input, recording(test, tested)).forEachRemaining(visited::add);
+		check(visited.equals(expected), "lexicographic", name, input, visited);
+		checkExtensions(input, new HashSet<>(visited), tested, "lexicographic", name, input);
+
+		check(PowerSetLexicographic.stream(input, test).collect(Collectors.toList()).equals(expected), "stream", name,
+				input);
+	}
+
+	static void depthFirst(List<Integer> input, String name, Predicate<Set<Integer>> test) {
+		List<Integer> distinct = input.stream().distinct().collect(Collectors.toList());
+		Set<Set<Integer>> expected = PowerSetLexicographic.stream(distinct).filter(test).collect(Collectors.toSet());
+
+		List<Set<Integer>> tested = new ArrayList<>();
+		List<Set<Integer>> visited = new ArrayList<>();
+		PowerSet.iterator(input, recording(test, tested)).forEachRemaining(visited::add);
+		check(new HashSet<>(visited).equals(expected), "depth first", name, input, visited);
+		check(visited.size() == expected.size(), "twice", name, input, visited);
+		checkExtensions(distinct, expected, tested, "depth first", name, input);
+
+		check(PowerSet.stream(input, test).collect(Collectors.toList()).equals(visited), "stream", name, input);
+	}
+}
@@ -0,0 +1,390 @@
+/**
+ *
+ */
+package test;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import edu.cs.ai.math.combinatorics.CombinatorialNumbers;
+import edu.cs.ai.math.combinatorics.KCombinationLexicographic;
+import edu.cs.ai.math.combinatorics.KPermutationLexicographic;
+import edu.cs.ai.math.combinatorics.KTupleEnumeration;
+import edu.cs.ai.math.combinatorics.Odometer;
+import edu.cs.ai.math.combinatorics.PartitionsLexicographic;
+import edu.cs.ai.math.combinatorics.PermutationsLexicographic;
+import edu.cs.ai.math.combinatorics.PreorderEnumeration;
+import edu.cs.ai.math.settheory.Tuple;
+
+/**
+ * Checks that the ranks of the enumerators are the positions in their
+ * iteration order, that unranking inverts ranking, and that the iterators
+ * starting at a rank visit the rest of the order.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+class RankingTest {
+
+	public static void main(String[] args) {
+		largeKCombinations(70, 35, new SplittableRandom(1));
+		mixedRadix(List.of(List.of(1, 2, 3), List.of(4), List.of(5, 6), List.of(7, 8, 9, 10)));
+		mixedRadix(List.of(List.of(1, 2), List.of(), List.of(3)));
+		hugeTuples(elements(10), 30);
+		largeRanks(new SplittableRandom(2));
+		for (int n = 0; n <= 7; n++) {
+			List<Integer> input = elements(n);
+			for (int k = 0; k <= n; k++) {
+				kCombinations(input, k);
+				bigKCombinations(input, k);
+			}
+			for (int k = 0; k <= 4; k++) {
+				kTuples(input, k);
+				kTupleStreams(input, k);
+			}
+			for (int k = 0; k <= n; k++)
+				kPermutations(input, k);
+			partitions(input);
+			preorders(n);
+		}
+		System.out.println("ok");
+	}
+
+	static List<Integer> elements(int n) {
+		return IntStream.range(0, n).boxed().collect(Collectors.toList());
+	}
+
+	static void check(boolean condition, Object... context) {
+		if (!condition)
+			throw new AssertionError(Arrays.deepToString(context));
+	}
+
+	/***
+	 * Checks that the iterator starting at rank {@code r} visits
+	 * {@code all.subList(r, all.size())}, for 31 ranks spread evenly over the
+	 * order, including the first and the last one.
+	 */
+	static <T> void checkTails(List<T> all, LongFunction<Iterator<T>> from) {
+		if (all.isEmpty())
+			return;
+		for (int i = 0; i <= 30; i++) {
+			int r = (all.size() - 1) * i / 30;
+			List<T> tail = new ArrayList<>();
+			from.apply(r).forEachRemaining(tail::add);
+			check(tail.equals(all.subList(r, all.size())), "tail", r);
+		}
+	}
+
+	static void kCombinations(List<Integer> input, int k) {
+		int n = input.size();
+		List<Set<Integer>> all = new ArrayList<>();
+		KCombinationLexicographic.iterator(input, k).forEachRemaining(all::add);
+		check(all.size() == CombinatorialNumbers.binomialLong(n, k), "count", n, k);
+		check(KCombinationLexicographic.count(input, k).equals(BigInteger.valueOf(all.size())), "count", n, k);
+
+		int[] pos = new int[k];
+		for (int r = 0; r < all.size(); r++) {
+			check(KCombinationLexicographic.rank(input, all.get(r)) == r, "rank", n, k, r);
+			check(KCombinationLexicographic.unrank(input, k, r).equals(all.get(r)), "unrank", n, k, r);
+			KCombinationLexicographic.unrank(n, r, pos);
+			check(KCombinationLexicographic.rank(n, pos) == r, "positions", n, k, r);
+		}
+		checkTails(all, r -> KCombinationLexicographic.iterator(input, k, r));
+	}
+
+	static void bigKCombinations(List<Integer> input, int k) {
+		int n = input.size();
+		List<Set<Integer>> all = new ArrayList<>();
+		KCombinationLexicographic.iterator(input, k).forEachRemaining(all::add);
+
+		int[] pos = new int[k];
+		BitSet subset = KCombinationLexicographic.unrankBitSet(n, k, BigInteger.ZERO);
+		for (int r = 0; r < all.size(); r++) {
+			BigInteger rank = BigInteger.valueOf(r);
+			KCombinationLexicographic.unrank(n, rank, pos);
+			check(KCombinationLexicographic.bigRank(n, pos).equals(rank), "positions", n, k, r);
+			check(KCombinationLexicographic.unrankBitSet(n, k, rank).equals(subset), "bitset", n, k, r);
+			check(KCombinationLexicographic.bigRank(n, subset).equals(rank), "bitset rank", n, k, r);
+			check(KCombinationLexicographic.next(n, subset) == r < all.size() - 1, "next", n, k, r);
+		}
+		checkTails(all, r -> KCombinationLexicographic.iterator(input, k, BigInteger.valueOf(r)));
+
+		// The shards cover the order without gaps and overlaps
+		for (int parts = 1; parts <= 4; parts++) {
+			BigInteger[] bounds = KCombinationLexicographic.shards(n, k, parts);
+			List<Set<Integer>> joined = new ArrayList<>();
+			for (int i = 0; i < parts; i++)
+				KCombinationLexicographic.iterator(input, k, bounds[i], bounds[i + 1]).forEachRemaining(joined::add);
+			check(joined.equals(all), "shards", n, k, parts);
+		}
+	}
+
+	/***
+	 * Round trips random ranks beyond {@code long} through the positions and the
+	 * {@link BitSet} of their k-subsets.
+	 */
+	static void largeKCombinations(int n, int k, SplittableRandom random) {
+		BigInteger count = CombinatorialNumbers.binomial(n, k);
+		check(count.bitLength() > Long.SIZE, "count", n, k);
+		int[] pos = new int[k];
+		for (int i = 0; i < 100; i++) {
+			BigInteger rank = new BigInteger(count.bitLength(), new Random(random.nextLong())).mod(count);
+			KCombinationLexicographic.unrank(n, rank, pos);
+			check(KCombinationLexicographic.bigRank(n, pos).equals(rank), "positions", rank);
+			BitSet subset = KCombinationLexicographic.unrankBitSet(n, k, rank);
+			check(subset.cardinality() == k, "cardinality", rank);
+			for (int p : pos)
+				check(subset.get(p), "bitset", rank);
+			if (rank.add(BigInteger.ONE).compareTo(count) < 0) {
+				check(KCombinationLexicographic.next(n, subset), "next", rank);
+				check(KCombinationLexicographic.bigRank(n, subset).equals(rank.add(BigInteger.ONE)), "successor", rank);
+			}
+		}
+	}
+
+	static void kTuples(List<Integer> input, int k) {
+		int n = input.size();
+		List<Tuple<Integer>> all = new ArrayList<>();
+		KTupleEnumeration.iterator(input, k).forEachRemaining(all::add);
+		check(all.size() == CombinatorialNumbers.powerLong(n, k), "count", n, k);
+		check(KTupleEnumeration.count(input, k).equals(BigInteger.valueOf(all.size())), "count", n, k);
+
+		int[] pos = new int[k];
+		for (int r = 0; r < all.size(); r++) {
+			check(KTupleEnumeration.rank(input, all.get(r)) == r, "rank", n, k, r);
+			check(KTupleEnumeration.unrank(input, k, r).equals(all.get(r)), "unrank", n, k, r);
+			KTupleEnumeration.unrank(n, r, pos);
+			check(KTupleEnumeration.rank(n, pos) == r, "positions", n, k, r);
+			check(KTupleEnumeration.bigRank(n, pos).equals(BigInteger.valueOf(r)), "big rank", n, k, r);
+			KTupleEnumeration.unrank(n, BigInteger.valueOf(r), pos);
+			check(KTupleEnumeration.rank(n, pos) == r, "big unrank", n, k, r);
+		}
+		checkTails(all, r -> KTupleEnumeration.iterator(input, k, r));
+		checkTails(all, r -> KTupleEnumeration.iterator(input, k, BigInteger.valueOf(r)));
+	}
+
+	static void kTupleStreams(List<Integer> input, int k) {
+		List<Tuple<Integer>> all = new ArrayList<>();
+		KTupleEnumeration.iterator(input, k).forEachRemaining(all::add);
+		check(KTupleEnumeration.stream(input, k).parallel().collect(Collectors.toList()).equals(all), "stream",
+				input.size(), k);
+		for (int from = 0; from <= all.size(); from += 3)
+			for (int to = from; to <= all.size(); to += 5) {
+				List<Tuple<Integer>> range = KTupleEnumeration.stream(input, k, from, to).parallel()
+						.collect(Collectors.toList());
+				check(range.equals(all.subList(from, to)), "range", input.size(), k, from, to);
+			}
+	}
+
+	/***
+	 * Checks the tuples over domains of different sizes against the ranks of the
+	 * {@link Odometer}.
+	 */
+	static void mixedRadix(List<List<Integer>> domains) {
+		List<Tuple<Integer>> all = new ArrayList<>();
+		KTupleEnumeration.iterator(domains).forEachRemaining(all::add);
+		check(KTupleEnumeration.count(domains).equals(BigInteger.valueOf(all.size())), "count", domains);
+		check(KTupleEnumeration.stream(domains).parallel().collect(Collectors.toList()).equals(all), "stream",
+				domains);
+
+		int[] radices = domains.stream().mapToInt(List::size).toArray();
+		Odometer odometer = new Odometer(radices);
+		check(odometer.size() == all.size(), "size", domains);
+		for (int r = 0; r < all.size(); r++) {
+			check(odometer.rank() == r, "rank", domains, r);
+			List<Integer> digits = new ArrayList<>();
+			for (int i = 0; i < radices.length; i++)
+				digits.add(domains.get(i).get(odometer.current()[i]));
+			check(all.get(r).toList().equals(digits), "digits", domains, r);
+			odometer.advance();
+		}
+		for (int r = all.size() - 1; r >= 0; r--) {
+			odometer.setRank(r);
+			check(odometer.rank() == r, "set rank", domains, r);
+		}
+	}
+
+	/***
+	 * Checks the rank ranges of k-tuples, whose number does not fit into a
+	 * {@code long}.
+	 */
+	static void hugeTuples(List<Integer> input, int k) {
+		List<Tuple<Integer>> head = new ArrayList<>();
+		Iterator<Tuple<Integer>> itr = KTupleEnumeration.iterator(input, k);
+		while (head.size() < 1000)
+			head.add(itr.next());
+		check(KTupleEnumeration.stream(input, k, 0L, 1000L).parallel().collect(Collectors.toList()).equals(head),
+				"head", k);
+		check(KTupleEnumeration.stream(input, k, 500L, 1000L).collect(Collectors.toList())
+				.equals(head.subList(500, 1000)), "range", k);
+		// The unsized streams keep the order, also when run in parallel
+		check(KTupleEnumeration.stream(input, k).parallel().limit(1000).collect(Collectors.toList()).equals(head),
+				"unsized", k);
+		check(KTupleEnumeration.stream(Collections.nCopies(k, input)).parallel().limit(1000)
+				.collect(Collectors.toList()).equals(head), "unsized domains", k);
+
+		int[] radices = new int[k];
+		Arrays.fill(radices, input.size());
+		Odometer odometer = new Odometer(radices);
+		for (long rank : new long[] { 0L, 999L, Long.MAX_VALUE - 1, Long.MAX_VALUE }) {
+			odometer.setRank(rank);
+			check(odometer.rank() == rank, "set rank", rank);
+		}
+		check(KTupleEnumeration.stream(input, k, Long.MAX_VALUE - 10, Long.MAX_VALUE).parallel().count() == 10,
+				"tail", k);
+
+		// A radix 0 empties the odometer, also behind an overflowing product
+		int[] empty = Arrays.copyOf(radices, k + 1);
+		check(new Odometer(empty).size() == 0L, "size", k);
+	}
+
+	/***
+	 * Round trips random ranks beyond {@code long} of partitions, total preorders
+	 * and k-tuples, and checks that the iterators starting at such a rank visit
+	 * the successor next. The last objects have the largest ranks.
+	 */
+	static void largeRanks(SplittableRandom random) {
+		int[] rgs = new int[30];
+		BigInteger bell = CombinatorialNumbers.bell(rgs.length);
+		List<Integer> input = elements(rgs.length);
+		for (BigInteger rank : randomRanks(bell, random)) {
+			PartitionsLexicographic.unrank(rank, rgs);
+			check(PartitionsLexicographic.bigRank(rgs).equals(rank), "partition", rank);
+			if (rank.add(BigInteger.ONE).compareTo(bell) < 0) {
+				Iterator<List<List<Integer>>> itr = PartitionsLexicographic.iterator(input, rank);
+				itr.next();
+				PartitionsLexicographic.unrank(rank.add(BigInteger.ONE), rgs);
+				List<List<Integer>> next = itr.next();
+				for (int i = 0; i < rgs.length; i++)
+					check(next.get(rgs[i]).contains(i), "partition successor", rank);
+			}
+		}
+		check(PartitionsLexicographic.bigRank(IntStream.range(0, rgs.length).toArray())
+				.equals(bell.subtract(BigInteger.ONE)), "last partition");
+
+		int[] code = new int[25];
+		BigInteger fubini = CombinatorialNumbers.fubini(code.length);
+		for (BigInteger rank : randomRanks(fubini, random)) {
+			PreorderEnumeration.unrank(rank, code);
+			check(PreorderEnumeration.bigRank(code).equals(rank), "preorder", rank);
+			if (rank.add(BigInteger.ONE).compareTo(fubini) < 0) {
+				Iterator<List<Integer>> itr = PreorderEnumeration.iterator(code.length, rank);
+				itr.next();
+				PreorderEnumeration.unrank(rank.add(BigInteger.ONE), code);
+				check(itr.next().equals(Arrays.stream(code).boxed().collect(Collectors.toList())),
+						"preorder successor", rank);
+			}
+		}
+		check(PreorderEnumeration.bigRank(IntStream.range(0, code.length).map(i -> code.length - 1 - i).toArray())
+				.equals(fubini.subtract(BigInteger.ONE)), "last preorder");
+
+		int[] pos = new int[30];
+		BigInteger power = CombinatorialNumbers.power(10, pos.length);
+		for (BigInteger rank : randomRanks(power, random)) {
+			KTupleEnumeration.unrank(10, rank, pos);
+			check(KTupleEnumeration.bigRank(10, pos).equals(rank), "tuple", rank);
+			check(new BigInteger(Arrays.stream(pos).mapToObj(Integer::toString).collect(Collectors.joining()))
+					.equals(rank), "digits", rank);
+		}
+		// The long ranks stay valid, although the number of k-tuples overflows
+		KTupleEnumeration.unrank(10, Long.MAX_VALUE, pos);
+		check(KTupleEnumeration.rank(10, pos) == Long.MAX_VALUE, "long tuple");
+		check(KTupleEnumeration.bigRank(10, pos).equals(BigInteger.valueOf(Long.MAX_VALUE)), "long tuple");
+		check(KTupleEnumeration.iterator(elements(10), pos.length, power.subtract(BigInteger.ONE)).next()
+				.getIth(0) == 9, "last tuple");
+	}
+
+	/***
+	 * 100 random ranks below {@code count}, which is larger than any
+	 * {@code long}, and the last rank.
+	 */
+	static List<BigInteger> randomRanks(BigInteger count, SplittableRandom random) {
+		check(count.bitLength() > Long.SIZE, "count", count);
+		List<BigInteger> ranks = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+			ranks.add(new BigInteger(count.bitLength(), new Random(random.nextLong())).mod(count));
+		ranks.add(count.subtract(BigInteger.ONE));
+		return ranks;
+	}
+
+	static void kPermutations(List<Integer> input, int k) {
+		int n = input.size();
+		List<List<Integer>> all = new ArrayList<>();
+		KPermutationLexicographic.iterator(input, k).forEachRemaining(all::add);
+		check(all.size() == CombinatorialNumbers.fallingFactorialLong(n, k), "count", n, k);
+		check(KPermutationLexicographic.count(input, k).equals(BigInteger.valueOf(all.size())), "count", n, k);
+		check(KPermutationLexicographic.stream(input, k).parallel().collect(Collectors.toList()).equals(all), "stream",
+				n, k);
+
+		// The same k-permutations as all orders of the k-subsets
+		Set<List<Integer>> expected = new HashSet<>();
+		KCombinationLexicographic.stream(input, k)
+				.forEach(c -> PermutationsLexicographic.stream(new ArrayList<>(c)).forEach(expected::add));
+		check(new HashSet<>(all).equals(expected) && expected.size() == all.size(), "elements", n, k);
+
+		int[] pos = new int[k];
+		for (int r = 0; r < all.size(); r++) {
+			KPermutationLexicographic.unrank(n, r, pos);
+			for (int i = 0; i < k; i++)
+				check(input.get(pos[i]).equals(all.get(r).get(i)), "unrank", n, k, r);
+			check(KPermutationLexicographic.rank(n, pos) == r, "rank", n, k, r);
+		}
+		checkTails(all, r -> KPermutationLexicographic.iterator(input, k, r));
+	}
+
+	static void partitions(List<Integer> input) {
+		int n = input.size();
+		List<List<List<Integer>>> all = new ArrayList<>();
+		PartitionsLexicographic.iterator(input).forEachRemaining(all::add);
+		check(PartitionsLexicographic.count(input).equals(BigInteger.valueOf(all.size())), "count", n);
+		if (n > 0)
+			check(all.size() == CombinatorialNumbers.bellLong(n), "count", n);
+
+		int[] rgs = new int[n];
+		for (int r = 0; r < all.size(); r++) {
+			check(PartitionsLexicographic.rank(input, all.get(r)) == r, "rank", n, r);
+			check(PartitionsLexicographic.unrank(input, r).equals(all.get(r)), "unrank", n, r);
+			PartitionsLexicographic.unrank(r, rgs);
+			check(PartitionsLexicographic.rank(rgs) == r, "rgs", n, r);
+			check(PartitionsLexicographic.bigRank(rgs).equals(BigInteger.valueOf(r)), "big rank", n, r);
+			PartitionsLexicographic.unrank(BigInteger.valueOf(r), rgs);
+			check(PartitionsLexicographic.rank(rgs) == r, "big unrank", n, r);
+		}
+		checkTails(all, r -> PartitionsLexicographic.iterator(input, r));
+		checkTails(all, r -> PartitionsLexicographic.iterator(input, BigInteger.valueOf(r)));
+	}
+
+	static void preorders(int n) {
+		List<List<Integer>> all = new ArrayList<>();
+		PreorderEnumeration.iterator(n).forEachRemaining(all::add);
+		check(all.size() == CombinatorialNumbers.fubiniLong(n), "count", n);
+		check(PreorderEnumeration.count(n).equals(BigInteger.valueOf(all.size())), "count", n);
+
+		int[] code = new int[n];
+		for (int r = 0; r < all.size(); r++) {
+			for (int i = 0; i < n; i++)
+				code[i] = all.get(r).get(i);
+			check(PreorderEnumeration.rank(code) == r, "rank", n, r);
+			PreorderEnumeration.unrank(r, code);
+			for (int i = 0; i < n; i++)
+				check(code[i] == all.get(r).get(i), "unrank", n, r);
+			check(PreorderEnumeration.bigRank(code).equals(BigInteger.valueOf(r)), "big rank", n, r);
+			PreorderEnumeration.unrank(BigInteger.valueOf(r), code);
+			check(PreorderEnumeration.rank(code) == r, "big unrank", n, r);
+		}
+		checkTails(all, r -> PreorderEnumeration.iterator(n, r));
+		checkTails(all, r -> PreorderEnumeration.iterator(n, BigInteger.valueOf(r)));
+	}
+}
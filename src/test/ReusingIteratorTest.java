@@ -0,0 +1,125 @@
+/**
+ *
+ */
+package test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import edu.cs.ai.math.combinatorics.KCombinationLexicographic;
+import edu.cs.ai.math.combinatorics.KTupleEnumeration;
+import edu.cs.ai.math.combinatorics.PartitionView;
+import edu.cs.ai.math.combinatorics.PartitionsKBlocks;
+import edu.cs.ai.math.combinatorics.PartitionsLexicographic;
+import edu.cs.ai.math.combinatorics.PowerSetLexicographic;
+import edu.cs.ai.math.combinatorics.SubsetView;
+import edu.cs.ai.math.combinatorics.TupleView;
+
+/**
+ * Checks that the reusing iterators return one view, which equals the element
+ * of the allocating iterator at every step, that the views are read-only, and
+ * that their snapshots do not change when the view moves on.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+class ReusingIteratorTest {
+
+	public static void main(String[] args) {
+		for (int n = 0; n <= 6; n++) {
+			List<Integer> input = elements(n);
+			for (int k = 0; k <= n; k++)
+				lockstep(KCombinationLexicographic.reusingIterator(input, k),
+						KCombinationLexicographic.iterator(input, k), SubsetView::snapshot,
+						ReusingIteratorTest::readOnlySubset, "k-subsets", n, k);
+			for (int k = 0; k <= 3; k++)
+				lockstep(KTupleEnumeration.reusingIterator(input, k), KTupleEnumeration.iterator(input, k),
+						TupleView::snapshot, view -> {
+						}, "k-tuples", n, k);
+			lockstep(PowerSetLexicographic.reusingIterator(input), PowerSetLexicographic.iterator(input),
+					SubsetView::snapshot, ReusingIteratorTest::readOnlySubset, "power set", n);
+			lockstep(PartitionsLexicographic.reusingIterator(input), PartitionsLexicographic.iterator(input),
+					PartitionView::snapshot, ReusingIteratorTest::readOnlyPartition, "partitions", n);
+			for (int kmin = 1; kmin <= n; kmin++)
+				lockstep(PartitionsKBlocks.reusingIterator(input, kmin, n),
+						PartitionsKBlocks.iterator(input, kmin, n), PartitionView::snapshot, ReusingIteratorTest::readOnlyPartition, "k blocks", n, kmin);
+		}
+		System.out.println("ok");
+	}
+
+	static List<Integer> elements(int n) {
+		return IntStream.range(0, n).boxed().collect(Collectors.toList());
+	}
+
+	static void check(boolean condition, Object... context) {
+		if (!condition)
+			throw new AssertionError(Arrays.deepToString(context));
+	}
+
+	/***
+	 * Advances both iterators together. The reusing one has to return the same
+	 * view every time, equal to the element of the allocating one, and the
+	 * snapshots taken on the way have to equal all elements at the end.
+	 */
+	static <V, T> void lockstep(Iterator<V> reusing, Iterator<T> allocating, Function<V, T> snapshot,
+			Consumer<V> readOnly, Object... context) {
+		List<T> all = new ArrayList<>();
+		List<T> snapshots = new ArrayList<>();
+		V first = null;
+		while (allocating.hasNext()) {
+			check(reusing.hasNext(), "short", context);
+			T expected = allocating.next();
+			V view = reusing.next();
+			if (first == null) {
+				first = view;
+				readOnly.accept(view);
+			}
+			check(view == first, "same view", context, all.size());
+			check(view.equals(expected), "view", context, all.size(), view, expected);
+			T copy = snapshot.apply(view);
+			check(copy != view && copy.equals(expected), "snapshot", context, all.size());
+			all.add(expected);
+			snapshots.add(copy);
+		}
+		check(!reusing.hasNext(), "long", context);
+		check(snapshots.equals(all), "snapshots", context);
+	}
+
+	static void readOnlySubset(SubsetView<Integer> view) {
+		try {
+			view.add(-1);
+			throw new AssertionError("add");
+		} catch (UnsupportedOperationException e) {
+		}
+		if (view.isEmpty())
+			return;
+		try {
+			Iterator<Integer> itr = view.iterator();
+			itr.next();
+			itr.remove();
+			throw new AssertionError("remove");
+		} catch (UnsupportedOperationException e) {
+		}
+	}
+
+	static void readOnlyPartition(PartitionView<Integer> view) {
+		try {
+			view.add(new ArrayList<>());
+			throw new AssertionError("add");
+		} catch (UnsupportedOperationException e) {
+		}
+		if (view.isEmpty())
+			return;
+		try {
+			view.get(0).add(-1);
+			throw new AssertionError("block");
+		} catch (UnsupportedOperationException e) {
+		}
+	}
+}
@@ -0,0 +1,124 @@
+/**
+ *
+ */
+package test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import edu.cs.ai.math.combinatorics.CombinatorialNumbers;
+import edu.cs.ai.math.combinatorics.KCombinationLexicographic;
+import edu.cs.ai.math.combinatorics.KTupleEnumeration;
+import edu.cs.ai.math.combinatorics.PartitionsLexicographic;
+import edu.cs.ai.math.combinatorics.PermutationsLexicographic;
+import edu.cs.ai.math.combinatorics.PreorderEnumeration;
+
+/**
+ * Checks that the samplers only return objects of their enumeration, and that
+ * they hit every object about equally often. The samples are drawn from fixed
+ * seeds, so the outcome does not change between runs.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+class SamplingTest {
+
+	/**
+	 * The expected number of hits of every object
+	 */
+	private static final int HITS = 2000;
+
+	public static void main(String[] args) {
+		SplittableRandom random = new SplittableRandom(42);
+
+		for (int k = 0; k <= 5; k++) {
+			int kk = k;
+			int[] pos = new int[k];
+			uniform("k-subsets", CombinatorialNumbers.binomialLong(5, k), () -> {
+				KCombinationLexicographic.sample(5, pos, random);
+				return KCombinationLexicographic.rank(5, pos);
+			});
+			contained("k-subsets", KCombinationLexicographic.stream(elements(5), k).collect(Collectors.toSet()),
+					() -> KCombinationLexicographic.sample(elements(5), kk, random));
+		}
+
+		for (int k = 0; k <= 3; k++) {
+			int kk = k;
+			int[] pos = new int[k];
+			uniform("k-tuples", CombinatorialNumbers.powerLong(3, k), () -> {
+				KTupleEnumeration.sample(3, pos, random);
+				return KTupleEnumeration.rank(3, pos);
+			});
+			contained("k-tuples", KTupleEnumeration.stream(elements(3), k).collect(Collectors.toSet()),
+					() -> KTupleEnumeration.sample(elements(3), kk, random));
+		}
+
+		for (int n = 1; n <= 4; n++) {
+			int nn = n;
+			int[] permutation = new int[n];
+			uniform("permutations", CombinatorialNumbers.factorialLong(n), () -> {
+				PermutationsLexicographic.sample(permutation, random);
+				return PermutationsLexicographic.rank(permutation);
+			});
+			contained("permutations", PermutationsLexicographic.stream(elements(n)).collect(Collectors.toSet()),
+					() -> PermutationsLexicographic.sample(elements(nn), random));
+
+			int[] rgs = new int[n];
+			uniform("partitions", CombinatorialNumbers.bellLong(n), () -> {
+				PartitionsLexicographic.sample(rgs, random);
+				return PartitionsLexicographic.rank(rgs);
+			});
+			contained("partitions", PartitionsLexicographic.stream(elements(n)).collect(Collectors.toSet()),
+					() -> PartitionsLexicographic.sample(elements(nn), random));
+
+			int[] code = new int[n];
+			uniform("preorders", CombinatorialNumbers.fubiniLong(n), () -> {
+				PreorderEnumeration.sample(code, random);
+				return PreorderEnumeration.rank(code);
+			});
+			contained("preorders", PreorderEnumeration.stream(n).collect(Collectors.toSet()),
+					() -> PreorderEnumeration.sample(nn, random));
+		}
+		System.out.println("ok");
+	}
+
+	static List<Integer> elements(int n) {
+		return IntStream.range(0, n).boxed().collect(Collectors.toList());
+	}
+
+	/***
+	 * Draws {@code HITS * count} ranks and checks, that every rank below
+	 * {@code count} is hit within 20% of {@code HITS}, which is about nine
+	 * standard deviations.
+	 */
+	static void uniform(String name, long count, LongSupplier sampler) {
+		int[] hits = new int[(int) count];
+		for (long i = 0; i < HITS * count; i++) {
+			long rank = sampler.getAsLong();
+			if (rank < 0 || rank >= count)
+				throw new AssertionError(name + ": rank " + rank);
+			hits[(int) rank] += 1;
+		}
+		for (int h : hits)
+			if (Math.abs(h - HITS) > HITS / 5)
+				throw new AssertionError(name + ": " + Arrays.toString(hits));
+	}
+
+	/***
+	 * Checks, that 100 samples are objects of the enumeration.
+	 */
+	static <T> void contained(String name, Set<T> all, Supplier<T> sampler) {
+		Set<T> seen = new HashSet<>();
+		for (int i = 0; i < 100; i++)
+			seen.add(sampler.get());
+		if (!all.containsAll(seen))
+			throw new AssertionError(name + ": " + seen);
+	}
+}
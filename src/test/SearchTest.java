@@ -0,0 +1,201 @@
+/**
+ *
+ */
+package test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import edu.cs.ai.math.combinatorics.EnumerativeCombinatorics;
+import edu.cs.ai.math.combinatorics.KTupleEnumeration;
+import edu.cs.ai.math.combinatorics.Odometer;
+
+/**
+ * Checks that the backtracking search over tuples visits exactly the tuples of
+ * the full enumeration, which satisfy a prefix-closed test, in lexicographic
+ * order when sequential and in any order when parallel, and that it never tests
+ * the completions of a failing prefix.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+class SearchTest {
+
+	/**
+	 * The entries of the domain of position {@code i} are {@code SHIFT * i + v}.
+	 */
+	private static final int SHIFT = 100;
+
+	public static void main(String[] args) {
+		List<Predicate<List<Integer>>> tests = new ArrayList<>();
+		tests.add(prefix -> true);
+		tests.add(prefix -> false);
+		// No two neighbours with the same digit
+		tests.add(prefix -> IntStream.range(1, prefix.size())
+				.allMatch(i -> prefix.get(i) % SHIFT != prefix.get(i - 1) % SHIFT));
+		// A bound on the sum of the digits
+		tests.add(prefix -> prefix.stream().mapToInt(v -> v % SHIFT).sum() <= 4);
+		// Only the first position is restricted
+		tests.add(prefix -> prefix.get(0) % SHIFT == 1);
+
+		for (int[] radices : new int[][] { {}, { 3 }, { 2, 3, 4 }, { 3, 3, 3, 3, 3 }, { 2, 0, 3 }, { 0 },
+				{ 4, 1, 4, 1, 4 }, { 5, 5, 5, 5, 5, 5 } })
+			for (Predicate<List<Integer>> test : tests) {
+				domains(radices, test, false);
+				domains(radices, test, true);
+				digits(radices, test);
+			}
+		for (int n = 0; n <= 5; n++)
+			for (Predicate<List<Integer>> test : tests)
+				variations(n, test);
+		System.out.println("ok");
+	}
+
+	static void check(boolean condition, Object... context) {
+		if (!condition)
+			throw new AssertionError(Arrays.deepToString(context));
+	}
+
+	static List<List<Integer>> domains(int[] radices) {
+		List<List<Integer>> domains = new ArrayList<>();
+		for (int i = 0; i < radices.length; i++) {
+			int ii = i;
+			domains.add(IntStream.range(0, radices[i]).map(v -> SHIFT * ii + v).boxed().collect(Collectors.toList()));
+		}
+		return domains;
+	}
+
+	/***
+	 * All tuples over the domains in lexicographic order, whose prefixes all
+	 * satisfy {@code test}.
+	 */
+	static List<List<Integer>> expected(List<List<Integer>> domains, Predicate<List<Integer>> test) {
+		int[] radices = domains.stream().mapToInt(List::size).toArray();
+		List<List<Integer>> result = new ArrayList<>();
+		Odometer odometer = new Odometer(radices);
+		while (odometer.hasCurrent()) {
+			List<Integer> tuple = new ArrayList<>(odometer.domainView(domains));
+			if (IntStream.rangeClosed(1, tuple.size()).allMatch(length -> test.test(tuple.subList(0, length))))
+				result.add(tuple);
+			odometer.advance();
+		}
+		return result;
+	}
+
+	/***
+	 * The number of calls of {@code test} by a search, which tests the
+	 * extensions of {@code prefix} only if it passed.
+	 */
+	static int calls(List<List<Integer>> domains, Predicate<List<Integer>> test, List<Integer> prefix) {
+		if (prefix.size() == domains.size())
+			return 0;
+		int calls = 0;
+		for (Integer v : domains.get(prefix.size())) {
+			List<Integer> extended = new ArrayList<>(prefix);
+			extended.add(v);
+			calls += 1;
+			if (test.test(extended))
+				calls += calls(domains, test, extended);
+		}
+		return calls;
+	}
+
+	static void domains(int[] radices, Predicate<List<Integer>> test, boolean parallel) {
+		List<List<Integer>> domains = domains(radices);
+		List<List<Integer>> expected = expected(domains, test);
+		int calls = calls(domains, test, new ArrayList<>());
+
+		AtomicInteger tested = new AtomicInteger();
+		List<List<Integer>> visited = Collections.synchronizedList(new ArrayList<>());
+		KTupleEnumeration.search(domains, prefix -> {
+			tested.incrementAndGet();
+			check(!prefix.isEmpty(), "empty prefix", radices);
+			return test.test(prefix);
+		}, tuple -> visited.add(new ArrayList<>(tuple)), parallel);
+
+		if (parallel)
+			visited.sort(lexicographic());
+		check(visited.equals(expected), "tuples", radices, parallel, visited);
+		check(tested.get() == calls, "pruning", radices, parallel, tested.get(), calls);
+	}
+
+	/***
+	 * The search over the digits agrees with the search over the domains, and
+	 * the search over {@code k} copies of one input with the one over the
+	 * domains of the same size.
+	 */
+	static void digits(int[] radices, Predicate<List<Integer>> test) {
+		List<List<Integer>> domains = domains(radices);
+		List<List<Integer>> expected = expected(domains, test);
+		for (boolean parallel : new boolean[] { false, true }) {
+			List<List<Integer>> visited = Collections.synchronizedList(new ArrayList<>());
+			KTupleEnumeration.search(radices, (digits, length) -> {
+				List<Integer> prefix = new ArrayList<>();
+				for (int i = 0; i < length; i++)
+					prefix.add(SHIFT * i + digits[i]);
+				return test.test(prefix);
+			}, digits -> {
+				List<Integer> tuple = new ArrayList<>();
+				for (int i = 0; i < digits.length; i++)
+					tuple.add(SHIFT * i + digits[i]);
+				visited.add(tuple);
+			}, parallel);
+			if (parallel)
+				visited.sort(lexicographic());
+			check(visited.equals(expected), "digits", radices, parallel, visited);
+		}
+
+		if (Arrays.stream(radices).distinct().count() > 1)
+			return;
+		int k = radices.length;
+		List<Integer> input = k == 0 ? List.of() : domains.get(0);
+		// The domains of the copies are shifted by SHIFT per position
+		List<List<Integer>> copies = new ArrayList<>();
+		KTupleEnumeration.search(input, k, prefix -> test.test(shift(prefix)),
+				tuple -> copies.add(shift(tuple)), false);
+		check(copies.equals(expected), "copies", radices, copies);
+	}
+
+	static List<Integer> shift(List<Integer> tuple) {
+		return IntStream.range(0, tuple.size()).mapToObj(i -> SHIFT * i + tuple.get(i)).collect(Collectors.toList());
+	}
+
+	/***
+	 * The variations with a prefix test are the variations of the full
+	 * enumeration, which pass the test.
+	 */
+	static void variations(int n, Predicate<List<Integer>> test) {
+		List<Integer> elements = IntStream.range(0, n).boxed().collect(Collectors.toList());
+		List<List<Integer>> expected = new ArrayList<>();
+		int[] radices = new int[n];
+		Arrays.fill(radices, n);
+		Odometer odometer = new Odometer(radices);
+		while (odometer.hasCurrent()) {
+			List<Integer> variation = new ArrayList<>(odometer.view(elements));
+			if (IntStream.rangeClosed(1, n).allMatch(length -> test.test(shift(variation.subList(0, length)))))
+				expected.add(variation);
+			odometer.advance();
+		}
+
+		List<List<Integer>> visited = new ArrayList<>();
+		EnumerativeCombinatorics.generateVariations(elements, prefix -> test.test(shift(prefix)),
+				variation -> visited.add(new ArrayList<>(variation)));
+		check(visited.equals(expected), "variations", n, visited);
+	}
+
+	static Comparator<List<Integer>> lexicographic() {
+		return (a, b) -> {
+			for (int i = 0; i < Math.min(a.size(), b.size()); i++)
+				if (!a.get(i).equals(b.get(i)))
+					return Integer.compare(a.get(i), b.get(i));
+			return Integer.compare(a.size(), b.size());
+		};
+	}
+}
@@ -0,0 +1,188 @@
+/**
+ *
+ */
+package test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import edu.cs.ai.math.combinatorics.BitmaskPowerSet;
+import edu.cs.ai.math.combinatorics.SubsetTransforms;
+
+/**
+ * Checks the zeta and Moebius transforms and the subset convolution against
+ * the sums over all pairs of subsets, which take {@code O(3^n)}, and that the
+ * parallel passes compute the same tables as the sequential ones.
+ *
+ * @author Kai Sauerwald
+ *
+ */
+class SubsetTransformsTest {
+
+	public static void main(String[] args) {
+		SplittableRandom random = new SplittableRandom(7);
+		for (int n = 0; n <= 6; n++)
+			for (int i = 0; i < 5; i++) {
+				long[] f = random(n, random);
+				long[] g = random(n, random);
+				transforms(f);
+				convolution(f, g);
+				doubles(f, g);
+			}
+		// Large enough to be split among the common pool
+		long[] f = random(14, random);
+		long[] g = random(14, random);
+		parallel(f, g);
+		tabulate(5);
+		lengths();
+		System.out.println("ok");
+	}
+
+	static void check(boolean condition, Object... context) {
+		if (!condition)
+			throw new AssertionError(Arrays.deepToString(context));
+	}
+
+	/***
+	 * A table over the powerset of {@code n} elements with small entries of both
+	 * signs.
+	 */
+	static long[] random(int n, SplittableRandom random) {
+		return random.longs(1 << n, -100L, 100L).toArray();
+	}
+
+	static long[] bruteZeta(long[] f) {
+		long[] result = new long[f.length];
+		for (int s = 0; s < f.length; s++)
+			for (int t = s;; t = (t - 1) & s) {
+				result[s] += f[t];
+				if (t == 0)
+					break;
+			}
+		return result;
+	}
+
+	static long[] bruteMoebius(long[] f) {
+		long[] result = new long[f.length];
+		for (int s = 0; s < f.length; s++)
+			for (int t = s;; t = (t - 1) & s) {
+				result[s] += Integer.bitCount(s & ~t) % 2 == 0 ? f[t] : -f[t];
+				if (t == 0)
+					break;
+			}
+		return result;
+	}
+
+	static long[] bruteConvolution(long[] f, long[] g) {
+		long[] result = new long[f.length];
+		for (int s = 0; s < f.length; s++)
+			for (int t = s;; t = (t - 1) & s) {
+				result[s] += f[t] * g[s & ~t];
+				if (t == 0)
+					break;
+			}
+		return result;
+	}
+
+	static void transforms(long[] f) {
+		int n = Integer.numberOfTrailingZeros(f.length);
+		long[] zeta = f.clone();
+		SubsetTransforms.zeta(zeta);
+		check(Arrays.equals(zeta, bruteZeta(f)), "zeta", n);
+		long[] moebius = f.clone();
+		SubsetTransforms.moebius(moebius);
+		check(Arrays.equals(moebius, bruteMoebius(f)), "moebius", n);
+
+		// Both orders of the round trip give back f
+		SubsetTransforms.moebius(zeta);
+		check(Arrays.equals(zeta, f), "moebius after zeta", n);
+		SubsetTransforms.zeta(moebius);
+		check(Arrays.equals(moebius, f), "zeta after moebius", n);
+	}
+
+	static void convolution(long[] f, long[] g) {
+		int n = Integer.numberOfTrailingZeros(f.length);
+		long[] fc = f.clone();
+		long[] gc = g.clone();
+		check(Arrays.equals(SubsetTransforms.convolution(f, g), bruteConvolution(f, g)), "convolution", n);
+		check(Arrays.equals(f, fc) && Arrays.equals(g, gc), "arguments", n);
+	}
+
+	/***
+	 * The transforms on {@code double} agree with the ones on {@code long} for
+	 * integral entries, which are exact in this range.
+	 */
+	static void doubles(long[] f, long[] g) {
+		int n = Integer.numberOfTrailingZeros(f.length);
+		double[] df = Arrays.stream(f).asDoubleStream().toArray();
+		double[] dg = Arrays.stream(g).asDoubleStream().toArray();
+		double[] zeta = df.clone();
+		SubsetTransforms.zeta(zeta);
+		check(Arrays.equals(zeta, Arrays.stream(bruteZeta(f)).asDoubleStream().toArray()), "zeta", n);
+		SubsetTransforms.moebius(zeta);
+		check(Arrays.equals(zeta, df), "round trip", n);
+		double[] moebius = df.clone();
+		SubsetTransforms.moebius(moebius);
+		check(Arrays.equals(moebius, Arrays.stream(bruteMoebius(f)).asDoubleStream().toArray()), "moebius", n);
+		check(Arrays.equals(SubsetTransforms.convolution(df, dg),
+				Arrays.stream(bruteConvolution(f, g)).asDoubleStream().toArray()), "convolution", n);
+	}
+
+	static void parallel(long[] f, long[] g) {
+		long[] sequential = f.clone();
+		long[] parallel = f.clone();
+		SubsetTransforms.zeta(sequential, false);
+		SubsetTransforms.zeta(parallel, true);
+		check(Arrays.equals(sequential, parallel), "zeta");
+		SubsetTransforms.moebius(sequential, false);
+		SubsetTransforms.moebius(parallel, true);
+		check(Arrays.equals(sequential, parallel) && Arrays.equals(parallel, f), "moebius");
+		check(Arrays.equals(SubsetTransforms.convolution(f, g, false), SubsetTransforms.convolution(f, g, true)),
+				"convolution");
+
+		double[] df = Arrays.stream(f).asDoubleStream().toArray();
+		double[] dg = Arrays.stream(g).asDoubleStream().toArray();
+		check(Arrays.equals(SubsetTransforms.convolution(df, dg, false), SubsetTransforms.convolution(df, dg, true)),
+				"double convolution");
+	}
+
+	/***
+	 * The table of the subset sizes is indexed by the masks of
+	 * {@link BitmaskPowerSet}, and its zeta transform counts the subsets by size.
+	 */
+	static void tabulate(int n) {
+		List<Integer> base = IntStream.range(0, n).boxed().collect(Collectors.toList());
+		BitmaskPowerSet<Integer> powerSet = new BitmaskPowerSet<>(base);
+		long[] sizes = SubsetTransforms.tabulate(powerSet, s -> s.size());
+		double[] halves = SubsetTransforms.tabulateDouble(powerSet, s -> s.size() / 2.0);
+		for (int mask = 0; mask < sizes.length; mask++)
+			check(sizes[mask] == Integer.bitCount(mask) && halves[mask] == sizes[mask] / 2.0, "tabulate", mask);
+		// The sum of |T| over T subset of S is |S| 2^(|S|-1)
+		SubsetTransforms.zeta(sizes);
+		for (int mask = 1; mask < sizes.length; mask++)
+			check(sizes[mask] == (long) Integer.bitCount(mask) << (Integer.bitCount(mask) - 1), "sizes", mask);
+	}
+
+	static void lengths() {
+		for (int length : new int[] { 0, 3, 6, 12 }) {
+			try {
+				SubsetTransforms.zeta(new long[length]);
+				throw new AssertionError("zeta " + length);
+			} catch (IllegalArgumentException e) {
+			}
+			try {
+				SubsetTransforms.moebius(new double[length]);
+				throw new AssertionError("moebius " + length);
+			} catch (IllegalArgumentException e) {
+			}
+		}
+		try {
+			SubsetTransforms.convolution(new long[4], new long[8]);
+			throw new AssertionError("convolution");
+		} catch (IllegalArgumentException e) {
+		}
+	}
+}